@@ -0,0 +1,52 @@
+// k6 load test for comparing the platform-thread and virtual-thread modes.
+//
+//   k6 run -e VUS=1000 -e DURATION=2m loadtest/employees.js
+//
+// Each VU keeps one keep-alive connection, so VUS is the number of concurrent
+// connections. LOGIN_RATIO (0..1) sends that share of iterations through
+// /api/auth/login to include BCrypt; the rest read a page of employees.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const USERNAME = __ENV.USERNAME || 'loadtest';
+const PASSWORD = __ENV.PASSWORD || 'loadtest123';
+const LOGIN_RATIO = parseFloat(__ENV.LOGIN_RATIO || '0');
+
+export const options = {
+    scenarios: {
+        steady: {
+            executor: 'constant-vus',
+            vus: parseInt(__ENV.VUS || '1000', 10),
+            duration: __ENV.DURATION || '2m',
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+const JSON_HEADERS = { 'Content-Type': 'application/json' };
+
+function login() {
+    return http.post(`${BASE_URL}/api/auth/login`,
+        JSON.stringify({ username: USERNAME, password: PASSWORD }), { headers: JSON_HEADERS });
+}
+
+export function setup() {
+    http.post(`${BASE_URL}/api/auth/register`, JSON.stringify({
+        username: USERNAME, email: `${USERNAME}@example.com`, password: PASSWORD,
+    }), { headers: JSON_HEADERS });
+    const res = login();
+    check(res, { 'setup login ok': (r) => r.status === 200 });
+    return { token: res.json('data.accessToken') };
+}
+
+export default function (data) {
+    if (Math.random() < LOGIN_RATIO) {
+        check(login(), { 'login ok': (r) => r.status === 200 });
+        return;
+    }
+    const res = http.get(`${BASE_URL}/api/employees?limit=20`, {
+        headers: { Authorization: `Bearer ${data.token}` },
+    });
+    check(res, { 'list ok': (r) => r.status === 200 });
+}
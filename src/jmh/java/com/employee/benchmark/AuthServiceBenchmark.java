@@ -0,0 +1,146 @@
+package com.employee.benchmark;
+
+import com.employee.dto.AuthRequest;
+import com.employee.dto.AuthResponse;
+import com.employee.dto.LoginRequest;
+import com.employee.model.Role;
+import com.employee.model.User;
+import com.employee.repository.RefreshTokenRepository;
+import com.employee.repository.UserRepository;
+import com.employee.security.CustomUserDetailsService;
+import com.employee.security.JwtTokenProvider;
+import com.employee.security.VerifiedTokenCache;
+import com.employee.service.AuthService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Register and login through AuthService with the real BCrypt encoder and
+ * DaoAuthenticationProvider, and in-memory repositories. A Mongo round trip
+ * costs nothing here, so the numbers show the CPU side of each flow only.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class AuthServiceBenchmark {
+    
+    private static final int BCRYPT_STRENGTH = 10;
+    
+    private final AtomicLong counter = new AtomicLong();
+    
+    private AuthService authService;
+    
+    private LoginRequest loginRequest;
+    
+    @Setup
+    public void setUp() {
+        PasswordEncoder passwordEncoder = new BCryptPasswordEncoder(BCRYPT_STRENGTH);
+        UserRepository userRepository = userRepository();
+        
+        CustomUserDetailsService userDetailsService = new CustomUserDetailsService();
+        ReflectionTestUtils.setField(userDetailsService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(userDetailsService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(userDetailsService, "cacheEnabled", true);
+        ReflectionTestUtils.setField(userDetailsService, "cacheMaxSize", 10_000L);
+        ReflectionTestUtils.setField(userDetailsService, "cacheTtlInMs", 600_000L);
+        userDetailsService.init();
+        
+        DaoAuthenticationProvider authenticationProvider = new DaoAuthenticationProvider();
+        authenticationProvider.setUserDetailsService(userDetailsService);
+        authenticationProvider.setPasswordEncoder(passwordEncoder);
+        
+        VerifiedTokenCache cache = BenchmarkFixtures.tokenCache(true);
+        JwtTokenProvider tokenProvider = BenchmarkFixtures.tokenProvider(BenchmarkFixtures.keyRing("HS256"), cache);
+        
+        authService = new AuthService();
+        ReflectionTestUtils.setField(authService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(authService, "refreshTokenRepository", stub(RefreshTokenRepository.class, null));
+        ReflectionTestUtils.setField(authService, "passwordEncoder", passwordEncoder);
+        ReflectionTestUtils.setField(authService, "tokenProvider", tokenProvider);
+        ReflectionTestUtils.setField(authService, "authenticationManager", new ProviderManager(authenticationProvider));
+        ReflectionTestUtils.setField(authService, "revocationList", BenchmarkFixtures.revocationList());
+        ReflectionTestUtils.setField(authService, "refreshTokenExpirationInMs", 604_800_000L);
+        
+        authService.register(authRequest("bench-login"));
+        loginRequest = new LoginRequest();
+        loginRequest.setUsername("bench-login");
+        loginRequest.setPassword("password123");
+    }
+    
+    @Benchmark
+    public AuthResponse register() {
+        return authService.register(authRequest("bench-" + counter.incrementAndGet()));
+    }
+    
+    @Benchmark
+    public AuthResponse login() {
+        return authService.login(loginRequest);
+    }
+    
+    private static AuthRequest authRequest(String username) {
+        AuthRequest request = new AuthRequest();
+        request.setUsername(username);
+        request.setEmail(username + "@example.com");
+        request.setPassword("password123");
+        return request;
+    }
+    
+    private static UserRepository userRepository() {
+        Map<String, User> users = new ConcurrentHashMap<>();
+        return stub(UserRepository.class, (name, args) -> switch (name) {
+            case "existsByUsername", "existsByEmail" -> false;
+            case "findByUsername" -> Optional.ofNullable(users.get((String) args[0]));
+            case "save" -> {
+                User user = (User) args[0];
+                user.setId(Long.toHexString(System.nanoTime()));
+                user.setUpdatedAt(LocalDateTime.now());
+                users.put(user.getUsername(), user);
+                yield user;
+            }
+            default -> throw new UnsupportedOperationException(name);
+        });
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, Handler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> type.getSimpleName() + " stub";
+                };
+            }
+            return handler != null ? handler.invoke(method.getName(), args) : null;
+        });
+    }
+    
+    private interface Handler {
+        Object invoke(String method, Object[] args);
+    }
+}
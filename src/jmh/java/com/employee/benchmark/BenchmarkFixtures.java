@@ -0,0 +1,136 @@
+package com.employee.benchmark;
+
+import com.employee.repository.RevokedTokenRepository;
+import com.employee.security.CredentialChangeRegistry;
+import com.employee.security.JwtKeyRing;
+import com.employee.security.JwtTokenProvider;
+import com.employee.security.TokenRevocationList;
+import com.employee.security.VerifiedTokenCache;
+import com.employee.service.EmployeeCache;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.PrivateJwk;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.util.Collections;
+
+/**
+ * Wires the security components by hand, without a Spring context or MongoDB,
+ * so the benchmarks measure only the code under test.
+ */
+final class BenchmarkFixtures {
+    
+    static final String SECRET = "mySecretKey123456789012345678901234567890123456789012345678901234567890";
+    
+    private BenchmarkFixtures() {
+    }
+    
+    static JwtKeyRing keyRing(String algorithm) {
+        JwtKeyRing keyRing = new JwtKeyRing();
+        ReflectionTestUtils.setField(keyRing, "activeKid", "");
+        ReflectionTestUtils.setField(keyRing, "location", "HS256".equals(algorithm) ? "" : writeKey(algorithm));
+        keyRing.init();
+        return keyRing;
+    }
+    
+    static VerifiedTokenCache tokenCache(boolean enabled) {
+        return tokenCache(enabled, new SimpleMeterRegistry());
+    }
+    
+    static VerifiedTokenCache tokenCache(boolean enabled, MeterRegistry meterRegistry) {
+        VerifiedTokenCache cache = new VerifiedTokenCache();
+        ReflectionTestUtils.setField(cache, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(cache, "enabled", enabled);
+        ReflectionTestUtils.setField(cache, "maxSize", 10_000L);
+        ReflectionTestUtils.setField(cache, "ttlInMs", 300_000L);
+        cache.init();
+        return cache;
+    }
+    
+    static JwtTokenProvider tokenProvider(JwtKeyRing keyRing, VerifiedTokenCache cache) {
+        return tokenProvider(keyRing, cache, new SimpleMeterRegistry());
+    }
+    
+    static JwtTokenProvider tokenProvider(JwtKeyRing keyRing, VerifiedTokenCache cache, MeterRegistry meterRegistry) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(provider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(provider, "jwtExpirationInMs", 86_400_000L);
+        ReflectionTestUtils.setField(provider, "acceptHmac", true);
+        ReflectionTestUtils.setField(provider, "tokenCache", cache);
+        ReflectionTestUtils.setField(provider, "keyRing", keyRing);
+        provider.init();
+        return provider;
+    }
+    
+    static CredentialChangeRegistry credentialChangeRegistry() {
+        CredentialChangeRegistry registry = new CredentialChangeRegistry();
+        ReflectionTestUtils.setField(registry, "jwtExpirationInMs", 86_400_000L);
+        registry.init();
+        return registry;
+    }
+    
+    static TokenRevocationList revocationList() {
+        return revocationList(new SimpleMeterRegistry());
+    }
+    
+    static TokenRevocationList revocationList(MeterRegistry meterRegistry) {
+        // The list is only ever read on the request path, so an empty repository suffices.
+        RevokedTokenRepository repository = (RevokedTokenRepository) Proxy.newProxyInstance(
+                RevokedTokenRepository.class.getClassLoader(), new Class<?>[] {RevokedTokenRepository.class},
+                (proxy, method, args) -> Collections.emptyList());
+        TokenRevocationList revocationList = new TokenRevocationList();
+        ReflectionTestUtils.setField(revocationList, "revokedTokenRepository", repository);
+        ReflectionTestUtils.setField(revocationList, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(revocationList, "expectedEntries", 100_000);
+        ReflectionTestUtils.setField(revocationList, "falsePositiveRate", 0.01);
+        revocationList.init();
+        return revocationList;
+    }
+    
+    static EmployeeCache employeeCache(boolean enabled, MeterRegistry meterRegistry) {
+        EmployeeCache cache = new EmployeeCache();
+        ReflectionTestUtils.setField(cache, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(cache, "enabled", enabled);
+        ReflectionTestUtils.setField(cache, "maxSize", 10_000L);
+        ReflectionTestUtils.setField(cache, "ttlInMs", 60_000L);
+        cache.init();
+        return cache;
+    }
+    
+    static String username(int length) {
+        StringBuilder builder = new StringBuilder(length);
+        while (builder.length() < length) {
+            builder.append("user");
+        }
+        return builder.substring(0, length);
+    }
+    
+    private static String writeKey(String algorithm) {
+        KeyPair keyPair = switch (algorithm) {
+            case "RS256" -> Jwts.SIG.RS256.keyPair().build();
+            case "ES256" -> Jwts.SIG.ES256.keyPair().build();
+            case "EdDSA" -> Jwks.CRV.Ed25519.keyPair().build();
+            default -> throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+        };
+        PrivateJwk<?, ?, ?> jwk = Jwks.builder().keyPair(keyPair).id("bench-" + algorithm).build();
+        try {
+            Path dir = Files.createTempDirectory("jwt-keys");
+            Files.writeString(dir.resolve("bench.json"), Jwks.UNSAFE_JSON(jwk), StandardCharsets.UTF_8);
+            dir.toFile().deleteOnExit();
+            dir.resolve("bench.json").toFile().deleteOnExit();
+            return dir.toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
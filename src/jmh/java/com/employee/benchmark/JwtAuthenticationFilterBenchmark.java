@@ -0,0 +1,79 @@
+package com.employee.benchmark;
+
+import com.employee.model.Role;
+import com.employee.security.JwtAuthenticationFilter;
+import com.employee.security.JwtTokenProvider;
+import com.employee.security.VerifiedTokenCache;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+    
+    @Param({"HS256", "ES256"})
+    private String algorithm;
+    
+    @Param({"false", "true"})
+    private boolean tokenCacheEnabled;
+    
+    @Param({"false", "true"})
+    private boolean stateless;
+    
+    private JwtAuthenticationFilter filter;
+    
+    private MockHttpServletRequest request;
+    
+    private final FilterChain chain = (req, res) -> { };
+    
+    @Setup
+    public void setUp() {
+        VerifiedTokenCache cache = BenchmarkFixtures.tokenCache(tokenCacheEnabled);
+        JwtTokenProvider tokenProvider = BenchmarkFixtures.tokenProvider(BenchmarkFixtures.keyRing(algorithm), cache);
+        // Stands in for the Mongo-backed CustomUserDetailsService.
+        UserDetailsService userDetailsService = username -> User.withUsername(username)
+                .password("{noop}password")
+                .roles(Role.USER.name())
+                .build();
+        
+        filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "tokenProvider", tokenProvider);
+        ReflectionTestUtils.setField(filter, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(filter, "credentialChangeRegistry", BenchmarkFixtures.credentialChangeRegistry());
+        ReflectionTestUtils.setField(filter, "revocationList", BenchmarkFixtures.revocationList());
+        ReflectionTestUtils.setField(filter, "stateless", stateless);
+        
+        request = new MockHttpServletRequest("GET", "/api/employees");
+        request.addHeader("Authorization", "Bearer " + tokenProvider.generateToken("bench-user", Role.USER));
+    }
+    
+    @Benchmark
+    public Authentication doFilter() throws Exception {
+        SecurityContextHolder.clearContext();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
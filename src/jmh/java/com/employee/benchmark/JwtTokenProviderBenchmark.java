@@ -0,0 +1,62 @@
+package com.employee.benchmark;
+
+import com.employee.model.Role;
+import com.employee.security.JwtTokenProvider;
+import com.employee.security.VerifiedToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtTokenProviderBenchmark {
+    
+    @Param({"HS256", "RS256", "ES256", "EdDSA"})
+    private String algorithm;
+    
+    @Param({"16", "256", "2048"})
+    private int subjectLength;
+    
+    private JwtTokenProvider tokenProvider;
+    
+    private String username;
+    
+    private String token;
+    
+    @Setup
+    public void setUp() {
+        tokenProvider = BenchmarkFixtures.tokenProvider(
+                BenchmarkFixtures.keyRing(algorithm), BenchmarkFixtures.tokenCache(false));
+        username = BenchmarkFixtures.username(subjectLength);
+        token = tokenProvider.generateToken(username, Role.USER);
+    }
+    
+    @Benchmark
+    public String generateToken() {
+        return tokenProvider.generateToken(username, Role.USER);
+    }
+    
+    @Benchmark
+    public VerifiedToken verify() {
+        return tokenProvider.verify(token);
+    }
+    
+    @Benchmark
+    public String validateThenGetUsername() {
+        return tokenProvider.validateToken(token) ? tokenProvider.getUsernameFromToken(token) : null;
+    }
+}
@@ -0,0 +1,135 @@
+package com.employee.benchmark;
+
+import com.employee.dto.EmployeeDTO;
+import com.employee.model.Employee;
+import com.employee.model.Role;
+import com.employee.repository.EmployeeRepository;
+import com.employee.security.JwtAuthenticationFilter;
+import com.employee.security.JwtTokenProvider;
+import com.employee.security.VerifiedToken;
+import com.employee.security.VerifiedTokenCache;
+import com.employee.service.EmployeeService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hot-path cost of the Micrometer instrumentation. "on" records into a
+ * Prometheus registry as in production; "off" denies every meter, which is
+ * what {@code management.metrics.enable.<prefix>=false} does, so the same code
+ * runs against no-op meters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetricsOverheadBenchmark {
+    
+    @Param({"off", "on"})
+    private String metrics;
+    
+    private JwtTokenProvider tokenProvider;
+    
+    private JwtAuthenticationFilter filter;
+    
+    private EmployeeService employeeService;
+    
+    private String token;
+    
+    private MockHttpServletRequest request;
+    
+    private final FilterChain chain = (req, res) -> { };
+    
+    @Setup
+    public void setUp() {
+        MeterRegistry meterRegistry = meterRegistry();
+        VerifiedTokenCache cache = BenchmarkFixtures.tokenCache(true, meterRegistry);
+        tokenProvider = BenchmarkFixtures.tokenProvider(BenchmarkFixtures.keyRing("HS256"), cache, meterRegistry);
+        token = tokenProvider.generateToken("bench-user", Role.USER);
+        
+        UserDetailsService userDetailsService = username -> User.withUsername(username)
+                .password("{noop}password")
+                .roles(Role.USER.name())
+                .build();
+        filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "tokenProvider", tokenProvider);
+        ReflectionTestUtils.setField(filter, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(filter, "credentialChangeRegistry", BenchmarkFixtures.credentialChangeRegistry());
+        ReflectionTestUtils.setField(filter, "revocationList", BenchmarkFixtures.revocationList(meterRegistry));
+        ReflectionTestUtils.setField(filter, "stateless", true);
+        request = new MockHttpServletRequest("GET", "/api/employees");
+        request.addHeader("Authorization", "Bearer " + token);
+        
+        employeeService = new EmployeeService();
+        ReflectionTestUtils.setField(employeeService, "employeeRepository", employeeRepository());
+        ReflectionTestUtils.setField(employeeService, "meterRegistry", meterRegistry);
+        // Uncached, so every call goes through the timed mapping.
+        ReflectionTestUtils.setField(employeeService, "employeeCache", BenchmarkFixtures.employeeCache(false, meterRegistry));
+        employeeService.init();
+    }
+    
+    @Benchmark
+    public VerifiedToken verifyCachedToken() {
+        return tokenProvider.verify(token);
+    }
+    
+    @Benchmark
+    public Authentication doFilter() throws Exception {
+        SecurityContextHolder.clearContext();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+    
+    @Benchmark
+    public EmployeeDTO getEmployeeById() {
+        return employeeService.getEmployeeById("65f1c2a9e4b0a1b2c3d4e5f6");
+    }
+    
+    private MeterRegistry meterRegistry() {
+        if ("on".equals(metrics)) {
+            return new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        }
+        MeterRegistry registry = new SimpleMeterRegistry();
+        registry.config().meterFilter(MeterFilter.deny());
+        return registry;
+    }
+    
+    private static EmployeeRepository employeeRepository() {
+        Employee employee = new Employee("65f1c2a9e4b0a1b2c3d4e5f6", "Ada", "Lovelace", "ada@example.com",
+                "Engineering", "Engineer", 120_000.0, LocalDateTime.now(), LocalDateTime.now(), 0L);
+        return (EmployeeRepository) Proxy.newProxyInstance(EmployeeRepository.class.getClassLoader(),
+                new Class<?>[] {EmployeeRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "findById" -> Optional.of(employee);
+                    case "toString" -> "EmployeeRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
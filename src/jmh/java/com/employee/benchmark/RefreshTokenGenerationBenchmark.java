@@ -0,0 +1,46 @@
+package com.employee.benchmark;
+
+import com.employee.security.OpaqueTokens;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the old UUID refresh tokens with opaque tokens. Runs with several
+ * threads by default because the difference is lock contention on the shared
+ * SecureRandom behind UUID.randomUUID(); use -t 1 for the uncontended cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class RefreshTokenGenerationBenchmark {
+    
+    @Benchmark
+    public String uuid() {
+        return UUID.randomUUID().toString();
+    }
+    
+    @Benchmark
+    public String opaque() {
+        return OpaqueTokens.generate();
+    }
+    
+    @Benchmark
+    public String opaqueWithHash() {
+        return OpaqueTokens.hash(OpaqueTokens.generate());
+    }
+}
@@ -0,0 +1,69 @@
+package com.employee.benchmark;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logging cost added to a GET /api/employees/{id} request, which used to log
+ * "Fetching employee" at INFO from both the controller and the service.
+ * <ul>
+ *   <li>syncInfo: the old setup, synchronous loggers and a flushing File appender</li>
+ *   <li>asyncInfo: the same two INFO lines through async loggers</li>
+ *   <li>asyncDebug: the current code, where those lines are DEBUG and filtered out</li>
+ * </ul>
+ * SampleTime mode, so the percentiles show the tail that disk flushes add.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(4)
+public class RequestLoggingBenchmark {
+    
+    private static final String SYNC = "org.apache.logging.log4j.core.selector.ClassLoaderContextSelector";
+    
+    private static final String ASYNC = "org.apache.logging.log4j.core.async.AsyncLoggerContextSelector";
+    
+    private static final Logger controllerLogger = LogManager.getLogger("com.employee.controller.EmployeeController");
+    
+    private static final Logger serviceLogger = LogManager.getLogger("com.employee.service.EmployeeService");
+    
+    private final String id = "65f1c2a9e4b0a1b2c3d4e5f6";
+    
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"-Dlog4j2.contextSelector=" + SYNC,
+            "-Dlog4j2.configurationFile=log4j2-benchmark-sync.xml"})
+    public void syncInfo() {
+        controllerLogger.info("Fetching employee with id: {}", id);
+        serviceLogger.info("Fetching employee with id: {}", id);
+    }
+    
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"-Dlog4j2.contextSelector=" + ASYNC,
+            "-Dlog4j2.configurationFile=log4j2-benchmark-async.xml"})
+    public void asyncInfo() {
+        controllerLogger.info("Fetching employee with id: {}", id);
+        serviceLogger.info("Fetching employee with id: {}", id);
+    }
+    
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"-Dlog4j2.contextSelector=" + ASYNC,
+            "-Dlog4j2.configurationFile=log4j2-benchmark-async.xml"})
+    public void asyncDebug() {
+        controllerLogger.debug("Fetching employee with id: {}", id);
+        serviceLogger.debug("Fetching employee with id: {}", id);
+    }
+}
@@ -0,0 +1,25 @@
+package com.employee.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class MongoConfig {
+    
+    @Value("${mongo.pool.max-size:100}")
+    private int maxPoolSize;
+    
+    @Value("${mongo.pool.max-wait-time:120000}")
+    private long maxWaitTimeInMs;
+    
+    @Bean
+    public MongoClientSettingsBuilderCustomizer connectionPoolCustomizer() {
+        return settings -> settings.applyToConnectionPoolSettings(pool -> pool
+                .maxSize(maxPoolSize)
+                .maxWaitTime(maxWaitTimeInMs, TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,137 @@
+package com.employee.config;
+
+import com.employee.model.RefreshToken;
+import jakarta.annotation.PostConstruct;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Creates the indexes declared on the mapped documents at startup, after
+ * migrating the data of existing databases that would otherwise keep them from
+ * building. This replaces spring.data.mongodb.auto-index-creation, which builds
+ * the indexes while the MongoTemplate is created, before anything can run.
+ * The reactive build keeps the blocking MongoTemplate, so this runs there too.
+ */
+@Component
+public class MongoIndexInitializer {
+    
+    private static final Logger logger = LogManager.getLogger(MongoIndexInitializer.class);
+    
+    static final String LEGACY_TOKEN_INDEX = "token_1";
+    
+    private static final int MAX_REPORTED_DUPLICATES = 100;
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    @Autowired
+    private MongoMappingContext mappingContext;
+    
+    @PostConstruct
+    public void init() {
+        removeLegacyRefreshTokens();
+        removeDuplicateRefreshTokens();
+        
+        IndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+        List<String> failed = new ArrayList<>();
+        for (MongoPersistentEntity<?> entity : mappingContext.getPersistentEntities()) {
+            if (entity.isAnnotationPresent(Document.class)) {
+                IndexOperations indexOps = mongoTemplate.indexOps(entity.getType());
+                for (IndexDefinition index : resolver.resolveIndexFor(entity.getTypeInformation())) {
+                    try {
+                        indexOps.ensureIndex(index);
+                    } catch (DuplicateKeyException ex) {
+                        failed.add(reportDuplicates(entity, index));
+                    }
+                }
+            }
+        }
+        if (!failed.isEmpty()) {
+            throw new IllegalStateException("Unique indexes cannot be built over existing duplicates in "
+                    + String.join(", ", failed) + "; the duplicates are logged above");
+        }
+    }
+    
+    /**
+     * A unique index fails to build when the collection already holds duplicate
+     * values, such as employees with the same email written before the index
+     * existed. Which document to keep is not ours to decide, so the duplicates
+     * are logged for an operator and startup fails once every other index is built.
+     */
+    private String reportDuplicates(MongoPersistentEntity<?> entity, IndexDefinition index) {
+        String[] keys = index.getIndexKeys().keySet().toArray(new String[0]);
+        Aggregation duplicates = Aggregation.newAggregation(
+                Aggregation.group(keys).push("id").as("ids").count().as("count"),
+                Aggregation.match(Criteria.where("count").gt(1)),
+                Aggregation.limit(MAX_REPORTED_DUPLICATES));
+        for (org.bson.Document duplicate : mongoTemplate.aggregate(duplicates, entity.getType(), org.bson.Document.class)) {
+            logger.error("Duplicate {} {} in {}: ids {}", String.join(",", keys), duplicate.get("_id"),
+                    entity.getCollection(), duplicate.get("ids"));
+        }
+        return entity.getCollection() + "." + String.join(",", keys);
+    }
+    
+    /**
+     * Refresh tokens used to be stored in plain text under a unique "token" index.
+     * Documents written since they became digests have no token field, so that
+     * index would reject every one after the first as a duplicate null. The old
+     * documents cannot be converted: a digest can be computed, but they lack the
+     * username and role a refresh issues from, so their users log in again.
+     */
+    private void removeLegacyRefreshTokens() {
+        IndexOperations indexOps = mongoTemplate.indexOps(RefreshToken.class);
+        if (indexOps.getIndexInfo().stream().anyMatch(index -> index.getName().equals(LEGACY_TOKEN_INDEX))) {
+            indexOps.dropIndex(LEGACY_TOKEN_INDEX);
+            logger.info("Dropped legacy refresh token index {}", LEGACY_TOKEN_INDEX);
+        }
+        long removed = mongoTemplate.remove(
+                new Query(Criteria.where("tokenHash").exists(false)), RefreshToken.class).getDeletedCount();
+        if (removed > 0) {
+            logger.info("Removed {} legacy plain-text refresh tokens", removed);
+        }
+    }
+    
+    /**
+     * Before issue became one upsert on a unique userId index, racing logins could
+     * leave several refresh tokens for one user, and the index cannot build over
+     * them. Only the newest token of each user is kept.
+     */
+    private void removeDuplicateRefreshTokens() {
+        boolean indexed = mongoTemplate.indexOps(RefreshToken.class).getIndexInfo().stream()
+                .anyMatch(index -> index.isUnique() && index.isIndexForFields(List.of("userId")));
+        if (indexed) {
+            return;
+        }
+        Aggregation duplicates = Aggregation.newAggregation(
+                Aggregation.sort(Sort.Direction.DESC, "createdAt"),
+                Aggregation.group("userId").push("id").as("ids").count().as("count"),
+                Aggregation.match(Criteria.where("count").gt(1)));
+        long removed = 0;
+        for (org.bson.Document user : mongoTemplate.aggregate(duplicates, RefreshToken.class, org.bson.Document.class)) {
+            List<Object> ids = user.getList("ids", Object.class);
+            removed += mongoTemplate.remove(new Query(Criteria.where("id").in(ids.subList(1, ids.size()))),
+                    RefreshToken.class).getDeletedCount();
+        }
+        if (removed > 0) {
+            logger.info("Removed {} duplicate refresh tokens before building the userId index", removed);
+        }
+    }
+}
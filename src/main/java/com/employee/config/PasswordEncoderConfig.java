@@ -0,0 +1,52 @@
+package com.employee.config;
+
+import com.employee.security.BoundedPasswordEncoder;
+import com.employee.security.PasswordHashCalibrator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+public class PasswordEncoderConfig {
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${security.password.bcrypt.strength:0}")
+    private int bcryptStrength;
+    
+    @Value("${security.password.target-ms:250}")
+    private long hashTargetInMs;
+    
+    @Value("${security.password.hash-threads:0}")
+    private int hashThreads;
+    
+    @Value("${security.password.hash-queue:256}")
+    private int hashQueueCapacity;
+    
+    @Value("${security.password.hash-timeout:10000}")
+    private long hashTimeoutInMs;
+    
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        int strength = bcryptStrength > 0 ? bcryptStrength : PasswordHashCalibrator.calibrateBCrypt(hashTargetInMs);
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+        
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", bcrypt);
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt", encoders);
+        // Hashes stored before the {id} prefix was introduced are plain BCrypt.
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        
+        int threads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(delegating, threads, hashQueueCapacity, hashTimeoutInMs, meterRegistry);
+    }
+}
@@ -5,19 +5,24 @@ import com.employee.dto.AuthResponse;
 import com.employee.dto.LoginRequest;
 import com.employee.dto.RefreshTokenRequest;
 import com.employee.dto.StandardResponse;
+import com.employee.exception.UnauthorizedException;
 import com.employee.service.AuthService;
 import jakarta.validation.Valid;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/auth")
 public class AuthController {
 
@@ -28,7 +33,7 @@ public class AuthController {
 
 	@PostMapping("/register")
 	public ResponseEntity<StandardResponse<AuthResponse>> register(@Valid @RequestBody AuthRequest request) {
-		logger.info("Registration request received for username: {}", request.getUsername());
+		logger.debug("Registration request received for username: {}", request.getUsername());
 		AuthResponse response = authService.register(request);
 		return ResponseEntity.status(HttpStatus.CREATED)
 				.body(StandardResponse.success("User registered successfully", response));
@@ -42,7 +47,7 @@ public class AuthController {
 
 	@PostMapping("/login")
 	public ResponseEntity<StandardResponse<AuthResponse>> login(@Valid @RequestBody LoginRequest request) {
-		logger.info("Login request received for username: {}", request.getUsername());
+		logger.debug("Login request received for username: {}", request.getUsername());
 		AuthResponse response = authService.login(request);
 		return ResponseEntity.ok(StandardResponse.success("Login successful", response));
 	}
@@ -50,8 +55,19 @@ public class AuthController {
 	@PostMapping("/refresh")
 	public ResponseEntity<StandardResponse<AuthResponse>> refreshToken(
 			@Valid @RequestBody RefreshTokenRequest request) {
-		logger.info("Refresh token request received");
+		logger.debug("Refresh token request received");
 		AuthResponse response = authService.refreshToken(request);
 		return ResponseEntity.ok(StandardResponse.success("Token refreshed successfully", response));
 	}
+
+	@PostMapping("/logout")
+	public ResponseEntity<StandardResponse<Void>> logout(
+			@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+		logger.debug("Logout request received");
+		if (authorization == null || !authorization.startsWith("Bearer ")) {
+			throw new UnauthorizedException("Access token is required");
+		}
+		authService.logout(authorization.substring(7));
+		return ResponseEntity.ok(StandardResponse.success("Logged out successfully", null));
+	}
 }
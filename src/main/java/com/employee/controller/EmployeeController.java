@@ -1,73 +1,224 @@
 package com.employee.controller;
 
+import com.employee.dto.BulkItemResult;
+import com.employee.dto.CursorPage;
+import com.employee.dto.EmployeeChanges;
 import com.employee.dto.EmployeeDTO;
+import com.employee.dto.EmployeePatch;
+import com.employee.dto.EmployeeSearchRequest;
 import com.employee.dto.StandardResponse;
+import com.employee.service.EmployeeChangeFeed;
 import com.employee.service.EmployeeService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/employees")
 public class EmployeeController {
     
     private static final Logger logger = LogManager.getLogger(EmployeeController.class);
     
+    private static final String NDJSON = "application/x-ndjson";
+    
     @Autowired
     private EmployeeService employeeService;
     
+    @Autowired
+    private EmployeeChangeFeed changeFeed;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
     @GetMapping
-    public ResponseEntity<StandardResponse<List<EmployeeDTO>>> getAllEmployees() {
-        logger.info("Fetching all employees");
-        List<EmployeeDTO> employees = employeeService.getAllEmployees();
-        return ResponseEntity.ok(StandardResponse.success(employees));
+    public ResponseEntity<StandardResponse<CursorPage<EmployeeDTO>>> getAllEmployees(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit,
+            WebRequest webRequest) {
+        logger.debug("Fetching employees page");
+        // The version is read before the page, so a write in between can only make the tag older, never newer.
+        if (webRequest.checkNotModified(EmployeeETags.ofCollection(employeeService.getCollectionVersion()))) {
+            return null;
+        }
+        CursorPage<EmployeeDTO> page = employeeService.getEmployeesPage(cursor, limit);
+        return ResponseEntity.ok(StandardResponse.success(page));
+    }
+    
+    @GetMapping("/search")
+    public ResponseEntity<StandardResponse<CursorPage<EmployeeDTO>>> searchEmployees(EmployeeSearchRequest request) {
+        logger.debug("Searching employees");
+        CursorPage<EmployeeDTO> page = employeeService.searchEmployees(request);
+        return ResponseEntity.ok(StandardResponse.success(page));
+    }
+    
+    @GetMapping("/changes")
+    public ResponseEntity<StandardResponse<EmployeeChanges>> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") int limit) {
+        logger.debug("Fetching employee changes");
+        EmployeeChanges changes = employeeService.getChanges(since, limit);
+        return ResponseEntity.ok(StandardResponse.success(changes));
+    }
+    
+    // SSE clients resume with Last-Event-ID on reconnect; NDJSON clients pass the last token as since.
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseBodyEmitter streamChangesAsEvents(
+            @RequestParam(required = false) String since,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        logger.debug("Opening employee change feed (SSE)");
+        return changeFeed.subscribe(EmployeeChangeFeed.Format.SSE, lastEventId != null ? lastEventId : since);
+    }
+    
+    @GetMapping(value = "/changes", produces = NDJSON)
+    public ResponseEntity<ResponseBodyEmitter> streamChangesAsNdjson(@RequestParam(required = false) String since) {
+        logger.debug("Opening employee change feed (NDJSON)");
+        ResponseBodyEmitter emitter = changeFeed.subscribe(EmployeeChangeFeed.Format.NDJSON, since);
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(emitter);
+    }
+    
+    @GetMapping(value = "/stream", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamAllEmployees() {
+        logger.debug("Streaming all employees");
+        ObjectWriter writer = objectMapper.writerFor(EmployeeDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = outputStream -> {
+            try (Stream<EmployeeDTO> employees = employeeService.streamAllEmployees();
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                Iterator<EmployeeDTO> iterator = employees.iterator();
+                while (iterator.hasNext()) {
+                    writer.writeValue(generator, iterator.next());
+                    generator.writeRaw('\n');
+                }
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<StandardResponse<EmployeeDTO>> getEmployeeById(@PathVariable String id) {
-        logger.info("Fetching employee with id: {}", id);
+    public ResponseEntity<StandardResponse<EmployeeDTO>> getEmployeeById(@PathVariable String id, WebRequest webRequest) {
+        logger.debug("Fetching employee with id: {}", id);
         EmployeeDTO employee = employeeService.getEmployeeById(id);
+        if (webRequest.checkNotModified(EmployeeETags.of(employee))) {
+            return null;
+        }
         return ResponseEntity.ok(StandardResponse.success(employee));
     }
     
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<StandardResponse<EmployeeDTO>> createEmployee(@Valid @RequestBody EmployeeDTO employeeDTO) {
-        logger.info("Creating new employee");
+        logger.debug("Creating new employee");
         EmployeeDTO createdEmployee = employeeService.createEmployee(employeeDTO);
         return ResponseEntity.status(HttpStatus.CREATED)
+                .eTag(EmployeeETags.of(createdEmployee))
                 .body(StandardResponse.success("Employee created successfully", createdEmployee));
     }
     
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, NDJSON}, produces = NDJSON)
+    @PreAuthorize("hasRole('ADMIN')")
+    public void saveEmployees(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        logger.debug("Bulk saving employees");
+        response.setContentType(NDJSON);
+        try (MappingIterator<EmployeeDTO> employees = objectMapper.readerFor(EmployeeDTO.class)
+                .readValues(request.getInputStream());
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            employeeService.saveEmployees(employees, ndjsonWriter(generator));
+        }
+    }
+    
+    @PostMapping(value = "/bulk/delete", consumes = {MediaType.APPLICATION_JSON_VALUE, NDJSON}, produces = NDJSON)
+    @PreAuthorize("hasRole('ADMIN')")
+    public void deleteEmployees(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        logger.debug("Bulk deleting employees");
+        response.setContentType(NDJSON);
+        try (MappingIterator<String> ids = objectMapper.readerFor(String.class)
+                .readValues(request.getInputStream());
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            employeeService.deleteEmployees(ids, ndjsonWriter(generator));
+        }
+    }
+    
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<StandardResponse<EmployeeDTO>> updateEmployee(
             @PathVariable String id,
-            @Valid @RequestBody EmployeeDTO employeeDTO) {
-        logger.info("Updating employee with id: {}", id);
-        EmployeeDTO updatedEmployee = employeeService.updateEmployee(id, employeeDTO);
-        return ResponseEntity.ok(StandardResponse.success("Employee updated successfully", updatedEmployee));
+            @Valid @RequestBody EmployeeDTO employeeDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        logger.debug("Updating employee with id: {}", id);
+        EmployeeDTO updatedEmployee = employeeService.updateEmployee(id, employeeDTO, EmployeeETags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok()
+                .eTag(EmployeeETags.of(updatedEmployee))
+                .body(StandardResponse.success("Employee updated successfully", updatedEmployee));
+    }
+    
+    @PatchMapping(value = "/{id}", consumes = {MediaType.APPLICATION_JSON_VALUE, "application/merge-patch+json"})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StandardResponse<EmployeeDTO>> patchEmployee(
+            @PathVariable String id,
+            @Valid @RequestBody EmployeePatch patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        logger.debug("Patching employee with id: {}", id);
+        EmployeeDTO patchedEmployee = employeeService.patchEmployee(id, patch, EmployeeETags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok()
+                .eTag(EmployeeETags.of(patchedEmployee))
+                .body(StandardResponse.success("Employee updated successfully", patchedEmployee));
     }
     
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<StandardResponse<Void>> deleteEmployee(@PathVariable String id) {
-        logger.info("Deleting employee with id: {}", id);
-        employeeService.deleteEmployee(id);
+    public ResponseEntity<StandardResponse<Void>> deleteEmployee(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        logger.debug("Deleting employee with id: {}", id);
+        employeeService.deleteEmployee(id, EmployeeETags.parseIfMatch(ifMatch));
         return ResponseEntity.ok(StandardResponse.success("Employee deleted successfully", null));
     }
+    
+    private Consumer<BulkItemResult> ndjsonWriter(JsonGenerator generator) {
+        ObjectWriter writer = objectMapper.writerFor(BulkItemResult.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        return result -> {
+            try {
+                writer.writeValue(generator, result);
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
 }
@@ -0,0 +1,44 @@
+package com.employee.controller;
+
+import com.employee.dto.EmployeeDTO;
+import com.employee.exception.PreconditionFailedException;
+
+/**
+ * Strong ETags for employee responses. A single employee is tagged with its
+ * version, which every write increments and If-Match is parsed back into for
+ * the conditional write; a list is tagged with the collection version.
+ */
+final class EmployeeETags {
+    
+    private EmployeeETags() {
+    }
+    
+    // An employee saved before versioning is tagged "0", which is also what the guard matches it as.
+    static String of(EmployeeDTO employee) {
+        return "\"" + (employee.getVersion() != null ? employee.getVersion() : 0L) + "\"";
+    }
+    
+    static String ofCollection(long version) {
+        return "\"v" + version + "\"";
+    }
+    
+    /**
+     * Returns the version an If-Match header asks for, or null when the write
+     * is unconditional (no header, or {@code *}). Only a single strong tag is
+     * supported; anything else cannot match and fails the precondition.
+     */
+    static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException ignored) {
+                // fall through to the failed precondition
+            }
+        }
+        throw new PreconditionFailedException("If-Match does not match the current employee");
+    }
+}
@@ -0,0 +1,30 @@
+package com.employee.controller;
+
+import com.employee.security.JwtKeyRing;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.TimeUnit;
+
+@RestController
+public class JwksController {
+    
+    @Autowired
+    private JwtKeyRing keyRing;
+    
+    @Value("${jwt.jwks.max-age:3600}")
+    private long maxAgeInSeconds;
+    
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> getJwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(maxAgeInSeconds, TimeUnit.SECONDS).cachePublic())
+                .eTag(keyRing.getVersion())
+                .body(keyRing.getJwksJson());
+    }
+}
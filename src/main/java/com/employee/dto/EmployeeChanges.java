@@ -0,0 +1,17 @@
+package com.employee.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeChanges {
+    private List<EmployeeDTO> changed;
+    private List<String> deleted;
+    private String watermark;
+    private boolean hasMore;
+}
@@ -0,0 +1,36 @@
+package com.employee.dto;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A partial employee update: only the non-null fields are changed. Present
+ * fields follow the same rules as {@link EmployeeDTO}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeePatch {
+    @Pattern(regexp = ".*\\S.*", message = "First name must not be blank")
+    private String firstName;
+    
+    @Pattern(regexp = ".*\\S.*", message = "Last name must not be blank")
+    private String lastName;
+    
+    @Pattern(regexp = ".*\\S.*", message = "Email must not be blank")
+    @Email(message = "Email should be valid")
+    private String email;
+    
+    @Pattern(regexp = ".*\\S.*", message = "Department must not be blank")
+    private String department;
+    
+    @Pattern(regexp = ".*\\S.*", message = "Position must not be blank")
+    private String position;
+    
+    @Positive(message = "Salary must be positive")
+    private Double salary;
+}
@@ -0,0 +1,28 @@
+package com.employee.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeSearchRequest {
+    private String department;
+    
+    private String position;
+    
+    private Double minSalary;
+    
+    private Double maxSalary;
+    
+    private String namePrefix;
+    
+    private List<String> fields;
+    
+    private String cursor;
+    
+    private Integer limit;
+}
@@ -3,7 +3,9 @@ package com.employee.exception;
 import com.employee.dto.StandardResponse;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -22,35 +24,61 @@ public class GlobalExceptionHandler {
     
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<StandardResponse<Void>> handleResourceNotFoundException(ResourceNotFoundException ex) {
-        logger.error("Resource not found: {}", ex.getMessage());
+        logger.warn("Resource not found: {}", ex.getMessage());
         return ResponseEntity.status(HttpStatus.NOT_FOUND)
                 .body(StandardResponse.error(ex.getMessage()));
     }
     
+    // Errors the change feed can raise set their type explicitly: Accept names the stream format, not JSON.
     @ExceptionHandler(BadRequestException.class)
     public ResponseEntity<StandardResponse<Void>> handleBadRequestException(BadRequestException ex) {
-        logger.error("Bad request: {}", ex.getMessage());
+        logger.warn("Bad request: {}", ex.getMessage());
         return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .contentType(MediaType.APPLICATION_JSON)
                 .body(StandardResponse.error(ex.getMessage()));
     }
     
     @ExceptionHandler(UnauthorizedException.class)
     public ResponseEntity<StandardResponse<Void>> handleUnauthorizedException(UnauthorizedException ex) {
-        logger.error("Unauthorized: {}", ex.getMessage());
+        logger.warn("Unauthorized: {}", ex.getMessage());
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                 .body(StandardResponse.error(ex.getMessage()));
     }
     
+    @ExceptionHandler(GoneException.class)
+    public ResponseEntity<StandardResponse<Void>> handleGoneException(GoneException ex) {
+        logger.warn("Gone: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.GONE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(StandardResponse.error(ex.getMessage()));
+    }
+    
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<StandardResponse<Void>> handlePreconditionFailedException(PreconditionFailedException ex) {
+        logger.warn("Precondition failed: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .body(StandardResponse.error(ex.getMessage()));
+    }
+    
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<StandardResponse<Void>> handleServiceUnavailableException(ServiceUnavailableException ex) {
+        logger.warn("Service unavailable: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(StandardResponse.error(ex.getMessage()));
+    }
+    
     @ExceptionHandler(BadCredentialsException.class)
     public ResponseEntity<StandardResponse<Void>> handleBadCredentialsException(BadCredentialsException ex) {
-        logger.error("Bad credentials: {}", ex.getMessage());
+        logger.warn("Bad credentials: {}", ex.getMessage());
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                 .body(StandardResponse.error("Invalid username or password"));
     }
     
     @ExceptionHandler(AccessDeniedException.class)
     public ResponseEntity<StandardResponse<Void>> handleAccessDeniedException(AccessDeniedException ex) {
-        logger.error("Access denied: {}", ex.getMessage());
+        logger.warn("Access denied: {}", ex.getMessage());
         return ResponseEntity.status(HttpStatus.FORBIDDEN)
                 .body(StandardResponse.error("Access denied. Insufficient permissions."));
     }
@@ -58,7 +86,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<StandardResponse<Map<String, String>>> handleValidationExceptions(
             MethodArgumentNotValidException ex) {
-        logger.error("Validation error: {}", ex.getMessage());
+        logger.warn("Validation error: {}", ex.getMessage());
         Map<String, String> errors = new HashMap<>();
         ex.getBindingResult().getAllErrors().forEach((error) -> {
             String fieldName = ((FieldError) error).getField();
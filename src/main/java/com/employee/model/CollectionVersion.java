@@ -0,0 +1,18 @@
+package com.employee.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "collection_versions")
+public class CollectionVersion {
+    @Id
+    private String id;
+    
+    private long version;
+}
@@ -4,6 +4,9 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
@@ -12,7 +15,18 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "employees")
+@CompoundIndexes({
+    @CompoundIndex(name = Employee.DEPARTMENT_INDEX, def = "{'department': 1, 'position': 1, 'salary': 1, '_id': 1}"),
+    @CompoundIndex(name = Employee.POSITION_INDEX, def = "{'position': 1, 'salary': 1, '_id': 1}"),
+    @CompoundIndex(name = Employee.NAME_INDEX, def = "{'lastName': 1, 'firstName': 1, '_id': 1}"),
+    @CompoundIndex(name = Employee.UPDATED_AT_INDEX, def = "{'updatedAt': 1, '_id': 1}")
+})
 public class Employee {
+    public static final String DEPARTMENT_INDEX = "department_position_salary_id";
+    public static final String POSITION_INDEX = "position_salary_id";
+    public static final String NAME_INDEX = "lastName_firstName_id";
+    public static final String UPDATED_AT_INDEX = "updatedAt_id";
+    
     @Id
     private String id;
     
@@ -20,6 +34,7 @@ public class Employee {
     
     private String lastName;
     
+    @Indexed(unique = true)
     private String email;
     
     private String department;
@@ -31,4 +46,6 @@ public class Employee {
     private LocalDateTime createdAt;
     
     private LocalDateTime updatedAt;
+    
+    private Long version;
 }
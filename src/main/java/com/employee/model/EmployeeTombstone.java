@@ -0,0 +1,32 @@
+package com.employee.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marks a deleted employee for delta sync. The id is the deleted employee's id;
+ * tombstones expire after {@link #RETENTION_DAYS}, so sync clients must come
+ * back more often than that.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "employee_tombstones")
+@CompoundIndex(name = EmployeeTombstone.DELETED_AT_INDEX, def = "{'deletedAt': 1, '_id': 1}")
+public class EmployeeTombstone {
+    public static final String DELETED_AT_INDEX = "deletedAt_id";
+    public static final long RETENTION_DAYS = 30;
+    
+    @Id
+    private String id;
+    
+    @Indexed(expireAfter = RETENTION_DAYS + "d")
+    private LocalDateTime deletedAt;
+}
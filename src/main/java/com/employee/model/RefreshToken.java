@@ -18,10 +18,19 @@ public class RefreshToken {
     private String id;
     
     @Indexed(unique = true)
-    private String token;
+    private String tokenHash;
     
+    @Indexed(sparse = true)
+    private String previousTokenHash;
+    
+    @Indexed(unique = true)
     private String userId;
     
+    private String username;
+    
+    private Role role;
+    
+    @Indexed(expireAfterSeconds = 0)
     private LocalDateTime expiryDate;
     
     private LocalDateTime createdAt;
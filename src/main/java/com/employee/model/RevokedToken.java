@@ -0,0 +1,27 @@
+package com.employee.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "revoked_tokens")
+public class RevokedToken {
+    @Id
+    private String id;
+    
+    private String username;
+    
+    @Indexed
+    private LocalDateTime revokedAt;
+    
+    @Indexed(expireAfterSeconds = 0)
+    private LocalDateTime expiresAt;
+}
@@ -27,6 +27,9 @@ public class User {
     
     private Role role;
     
+    @Indexed
+    private LocalDateTime credentialsChangedAt;
+    
     private LocalDateTime createdAt;
     
     private LocalDateTime updatedAt;
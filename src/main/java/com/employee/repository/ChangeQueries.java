@@ -0,0 +1,33 @@
+package com.employee.repository;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+
+/**
+ * The delta-sync query shared by employees and their tombstones: documents
+ * strictly after the (timestamp, id) position, older than {@code until}, in
+ * (timestamp, id) order so the position can resume a page exactly.
+ */
+public final class ChangeQueries {
+    
+    private ChangeQueries() {
+    }
+    
+    public static Query since(String timeField, LocalDateTime since, String afterId, LocalDateTime until,
+                              int limit, String indexHint) {
+        Criteria position = since == null
+                ? Criteria.where(timeField).lt(until)
+                : new Criteria().andOperator(
+                        Criteria.where(timeField).lt(until),
+                        new Criteria().orOperator(
+                                Criteria.where(timeField).gt(since),
+                                Criteria.where(timeField).is(since).and("id").gt(afterId)));
+        return new Query(position)
+                .with(Sort.by(Sort.Direction.ASC, timeField, "id"))
+                .limit(limit)
+                .withHint(indexHint);
+    }
+}
@@ -0,0 +1,9 @@
+package com.employee.repository;
+
+import com.employee.model.CollectionVersion;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CollectionVersionRepository extends MongoRepository<CollectionVersion, String>, CollectionVersionRepositoryCustom {
+}
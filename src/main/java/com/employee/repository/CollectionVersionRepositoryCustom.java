@@ -0,0 +1,5 @@
+package com.employee.repository;
+
+public interface CollectionVersionRepositoryCustom {
+    long increment(String collection);
+}
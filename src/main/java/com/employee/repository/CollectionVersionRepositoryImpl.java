@@ -0,0 +1,28 @@
+package com.employee.repository;
+
+import com.employee.model.CollectionVersion;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+public class CollectionVersionRepositoryImpl implements CollectionVersionRepositoryCustom {
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    /**
+     * Bumps the collection's version in one upsert, creating the counter on first use.
+     */
+    @Override
+    public long increment(String collection) {
+        CollectionVersion version = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("id").is(collection)),
+                new Update().inc("version", 1),
+                FindAndModifyOptions.options().upsert(true).returnNew(true),
+                CollectionVersion.class);
+        return version != null ? version.getVersion() : 0L;
+    }
+}
@@ -1,13 +1,21 @@
 package com.employee.repository;
 
 import com.employee.model.Employee;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface EmployeeRepository extends MongoRepository<Employee, String> {
+public interface EmployeeRepository extends MongoRepository<Employee, String>, EmployeeRepositoryCustom {
     Optional<Employee> findByEmail(String email);
     boolean existsByEmail(String email);
+    List<Employee> findAllBy(Pageable pageable);
+    List<Employee> findByIdGreaterThan(String id, Pageable pageable);
+    Stream<Employee> streamAllBy();
+    long deleteByIdIn(Collection<String> ids);
 }
@@ -0,0 +1,22 @@
+package com.employee.repository;
+
+import com.employee.model.Employee;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public interface EmployeeRepositoryCustom {
+    List<Employee> search(Criteria criteria, String indexHint, Collection<String> fields, Employee after, int limit);
+    Map<String, String> findIdsByEmail(Collection<String> emails);
+    Set<String> findExistingIds(Collection<String> ids);
+    Map<String, LocalDateTime> findCreatedAt(Collection<String> ids);
+    Map<Integer, String> bulkSave(List<Employee> employees, Set<String> newIds);
+    Employee updateIfUnchanged(String id, Update update, Long expectedVersion);
+    long deleteIfUnchanged(String id, Long expectedVersion);
+    List<Employee> findChangedSince(LocalDateTime since, String afterId, LocalDateTime until, int limit);
+}
@@ -0,0 +1,225 @@
+package com.employee.repository;
+
+import com.employee.model.Employee;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class EmployeeRepositoryImpl implements EmployeeRepositoryCustom {
+    
+    private static final int DUPLICATE_KEY = 11000;
+    
+    // The keys of each search index in index order, before the trailing _id.
+    private static final Map<String, List<String>> SEARCH_KEYS = Map.of(
+            Employee.DEPARTMENT_INDEX, List.of("department", "position", "salary"),
+            Employee.POSITION_INDEX, List.of("position", "salary"),
+            Employee.NAME_INDEX, List.of("lastName", "firstName"));
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    /**
+     * Reads a page in the order of the hinted index, whose keys end in _id, so
+     * the index scan returns rows already sorted and there is no SORT stage.
+     * {@code after} is the last row of the previous page; the next page starts
+     * after its full sort key. The sort keys are always loaded so that the
+     * caller can build the next cursor from the last row.
+     */
+    @Override
+    public List<Employee> search(Criteria criteria, String indexHint, Collection<String> fields, Employee after, int limit) {
+        List<String> keys = SEARCH_KEYS.get(indexHint);
+        if (keys == null) {
+            throw new IllegalArgumentException("Not a search index: " + indexHint);
+        }
+        List<String> sortKeys = new ArrayList<>(keys);
+        sortKeys.add("id");
+        if (after != null) {
+            criteria = new Criteria().andOperator(criteria, after(sortKeys, after));
+        }
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, sortKeys.toArray(new String[0])))
+                .limit(limit)
+                .withHint(indexHint);
+        if (fields != null && !fields.isEmpty()) {
+            Set<String> included = new LinkedHashSet<>(fields);
+            included.addAll(keys);
+            query.fields().include(included.toArray(new String[0]));
+        }
+        return mongoTemplate.find(query, Employee.class);
+    }
+    
+    // (k1 > v1) or (k1 = v1 and k2 > v2) or ... over the sort keys, ending with _id.
+    private static Criteria after(List<String> sortKeys, Employee after) {
+        BeanWrapper position = new BeanWrapperImpl(after);
+        List<Criteria> branches = new ArrayList<>(sortKeys.size());
+        for (int i = 0; i < sortKeys.size(); i++) {
+            Criteria branch = new Criteria();
+            for (int j = 0; j < i; j++) {
+                branch.and(sortKeys.get(j)).is(position.getPropertyValue(sortKeys.get(j)));
+            }
+            branches.add(branch.and(sortKeys.get(i)).gt(position.getPropertyValue(sortKeys.get(i))));
+        }
+        return new Criteria().orOperator(branches);
+    }
+    
+    @Override
+    public Map<String, String> findIdsByEmail(Collection<String> emails) {
+        Query query = new Query(Criteria.where("email").in(emails));
+        query.fields().include("email");
+        Map<String, String> ids = new HashMap<>();
+        for (Employee employee : mongoTemplate.find(query, Employee.class)) {
+            ids.put(employee.getEmail(), employee.getId());
+        }
+        return ids;
+    }
+    
+    @Override
+    public Set<String> findExistingIds(Collection<String> ids) {
+        Query query = new Query(Criteria.where("id").in(ids));
+        query.fields().include("id");
+        Set<String> existing = new HashSet<>();
+        for (Employee employee : mongoTemplate.find(query, Employee.class)) {
+            existing.add(employee.getId());
+        }
+        return existing;
+    }
+    
+    @Override
+    public Map<String, LocalDateTime> findCreatedAt(Collection<String> ids) {
+        Query query = new Query(Criteria.where("id").in(ids));
+        query.fields().include("id", "createdAt");
+        Map<String, LocalDateTime> createdAt = new HashMap<>();
+        for (Employee employee : mongoTemplate.find(query, Employee.class)) {
+            createdAt.put(employee.getId(), employee.getCreatedAt());
+        }
+        return createdAt;
+    }
+    
+    /**
+     * Writes all employees in one unordered bulk operation: those in {@code newIds}
+     * (with pre-assigned ids) are inserted, the rest are updated by id without
+     * upsert, so an employee deleted since the caller looked it up is reported as
+     * not found rather than recreated. Returns the error message for every position
+     * in {@code employees} that failed.
+     */
+    @Override
+    public Map<Integer, String> bulkSave(List<Employee> employees, Set<String> newIds) {
+        if (employees.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Employee.class);
+        for (Employee employee : employees) {
+            if (newIds.contains(employee.getId())) {
+                bulk.insert(employee);
+                continue;
+            }
+            Update update = new Update()
+                    .set("firstName", employee.getFirstName())
+                    .set("lastName", employee.getLastName())
+                    .set("email", employee.getEmail())
+                    .set("department", employee.getDepartment())
+                    .set("position", employee.getPosition())
+                    .set("salary", employee.getSalary())
+                    .set("updatedAt", employee.getUpdatedAt())
+                    .inc("version", 1);
+            bulk.updateOne(new Query(Criteria.where("id").is(employee.getId())), update);
+        }
+        
+        BulkWriteResult result;
+        Map<Integer, String> failures;
+        try {
+            result = bulk.execute();
+            failures = new HashMap<>();
+        } catch (BulkOperationException ex) {
+            result = ex.getResult();
+            failures = toFailures(ex.getErrors());
+        }
+        
+        Map<String, Integer> updates = new HashMap<>();
+        for (int i = 0; i < employees.size(); i++) {
+            if (!newIds.contains(employees.get(i).getId()) && !failures.containsKey(i)) {
+                updates.put(employees.get(i).getId(), i);
+            }
+        }
+        // The result only counts matches, so the ids are looked up again only when some update matched nothing.
+        if (result.getMatchedCount() < updates.size()) {
+            Set<String> existing = findExistingIds(updates.keySet());
+            for (Map.Entry<String, Integer> update : updates.entrySet()) {
+                if (!existing.contains(update.getKey())) {
+                    failures.put(update.getValue(), "Employee not found with id: " + update.getKey());
+                }
+            }
+        }
+        return failures;
+    }
+    
+    /**
+     * Applies the update, incrementing the version, and returns the new document
+     * in one findAndModify, guarded by the version when {@code expectedVersion} is
+     * given. Returns null when nothing matched.
+     */
+    @Override
+    public Employee updateIfUnchanged(String id, Update update, Long expectedVersion) {
+        Criteria criteria = Criteria.where("id").is(id);
+        if (expectedVersion != null) {
+            criteria = hasVersion(criteria, expectedVersion);
+        }
+        return mongoTemplate.findAndModify(new Query(criteria), update.inc("version", 1),
+                FindAndModifyOptions.options().returnNew(true), Employee.class);
+    }
+    
+    /**
+     * Deletes the document, guarded by the version when {@code expectedVersion}
+     * is given, and returns how many were deleted so callers need no existence
+     * check beforehand.
+     */
+    @Override
+    public long deleteIfUnchanged(String id, Long expectedVersion) {
+        Criteria criteria = Criteria.where("id").is(id);
+        if (expectedVersion != null) {
+            criteria = hasVersion(criteria, expectedVersion);
+        }
+        return mongoTemplate.remove(new Query(criteria), Employee.class).getDeletedCount();
+    }
+    
+    // Documents written before versioning have no version field and count as version 0.
+    private static Criteria hasVersion(Criteria criteria, long version) {
+        return version == 0 ? criteria.and("version").in(0L, null) : criteria.and("version").is(version);
+    }
+    
+    @Override
+    public List<Employee> findChangedSince(LocalDateTime since, String afterId, LocalDateTime until, int limit) {
+        return mongoTemplate.find(
+                ChangeQueries.since("updatedAt", since, afterId, until, limit, Employee.UPDATED_AT_INDEX),
+                Employee.class);
+    }
+    
+    private Map<Integer, String> toFailures(List<BulkWriteError> errors) {
+        Map<Integer, String> failures = new HashMap<>();
+        for (BulkWriteError error : errors) {
+            failures.put(error.getIndex(), error.getCode() == DUPLICATE_KEY ? "Email already exists" : error.getMessage());
+        }
+        return failures;
+    }
+}
@@ -0,0 +1,9 @@
+package com.employee.repository;
+
+import com.employee.model.EmployeeTombstone;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface EmployeeTombstoneRepository extends MongoRepository<EmployeeTombstone, String>, EmployeeTombstoneRepositoryCustom {
+}
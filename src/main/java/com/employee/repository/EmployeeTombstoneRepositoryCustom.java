@@ -0,0 +1,10 @@
+package com.employee.repository;
+
+import com.employee.model.EmployeeTombstone;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface EmployeeTombstoneRepositoryCustom {
+    List<EmployeeTombstone> findDeletedSince(LocalDateTime since, String afterId, LocalDateTime until, int limit);
+}
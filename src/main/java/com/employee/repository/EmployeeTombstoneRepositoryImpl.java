@@ -0,0 +1,21 @@
+package com.employee.repository;
+
+import com.employee.model.EmployeeTombstone;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class EmployeeTombstoneRepositoryImpl implements EmployeeTombstoneRepositoryCustom {
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    @Override
+    public List<EmployeeTombstone> findDeletedSince(LocalDateTime since, String afterId, LocalDateTime until, int limit) {
+        return mongoTemplate.find(
+                ChangeQueries.since("deletedAt", since, afterId, until, limit, EmployeeTombstone.DELETED_AT_INDEX),
+                EmployeeTombstone.class);
+    }
+}
@@ -7,8 +7,9 @@ import org.springframework.stereotype.Repository;
 import java.util.Optional;
 
 @Repository
-public interface RefreshTokenRepository extends MongoRepository<RefreshToken, String> {
-    Optional<RefreshToken> findByToken(String token);
+public interface RefreshTokenRepository extends MongoRepository<RefreshToken, String>, RefreshTokenRepositoryCustom {
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
     Optional<RefreshToken> findByUserId(String userId);
+    Optional<RefreshToken> findByPreviousTokenHash(String previousTokenHash);
     void deleteByUserId(String userId);
 }
@@ -0,0 +1,12 @@
+package com.employee.repository;
+
+import com.employee.model.RefreshToken;
+import com.employee.model.Role;
+
+import java.time.LocalDateTime;
+
+public interface RefreshTokenRepositoryCustom {
+    RefreshToken issue(String userId, String username, Role role, String tokenHash, LocalDateTime expiryDate);
+    RefreshToken rotate(String currentTokenHash, String newTokenHash, LocalDateTime now);
+    long deleteExpired(LocalDateTime now, int batchSize);
+}
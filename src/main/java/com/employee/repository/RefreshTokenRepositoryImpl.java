@@ -0,0 +1,66 @@
+package com.employee.repository;
+
+import com.employee.model.RefreshToken;
+import com.employee.model.Role;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class RefreshTokenRepositoryImpl implements RefreshTokenRepositoryCustom {
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    /**
+     * Replaces the user's refresh token in a single upsert keyed on the unique userId index.
+     */
+    @Override
+    public RefreshToken issue(String userId, String username, Role role, String tokenHash, LocalDateTime expiryDate) {
+        Query query = RefreshTokenUpdates.byUserId(userId);
+        Update update = RefreshTokenUpdates.issue(username, role, tokenHash, expiryDate);
+        FindAndModifyOptions options = FindAndModifyOptions.options().upsert(true).returnNew(true);
+        try {
+            return mongoTemplate.findAndModify(query, update, options, RefreshToken.class);
+        } catch (DuplicateKeyException e) {
+            // Two logins raced to insert the first token; the loser's retry updates the winner's document.
+            return mongoTemplate.findAndModify(query, update, options, RefreshToken.class);
+        }
+    }
+    
+    /**
+     * Atomically swaps an unexpired token for a new one, remembering the old value so
+     * that a second presentation of it can be detected as reuse. Returns null when the
+     * token is unknown, already rotated or expired.
+     */
+    @Override
+    public RefreshToken rotate(String currentTokenHash, String newTokenHash, LocalDateTime now) {
+        return mongoTemplate.findAndModify(RefreshTokenUpdates.unexpired(currentTokenHash, now),
+                RefreshTokenUpdates.rotate(currentTokenHash, newTokenHash),
+                FindAndModifyOptions.options().returnNew(true), RefreshToken.class);
+    }
+    
+    /**
+     * Deletes at most {@code batchSize} expired tokens, selecting them through the
+     * expiryDate index so each call is bounded regardless of the backlog.
+     */
+    @Override
+    public long deleteExpired(LocalDateTime now, int batchSize) {
+        Query query = new Query(Criteria.where("expiryDate").lt(now)).limit(batchSize);
+        query.fields().include("id");
+        List<String> ids = mongoTemplate.find(query, RefreshToken.class).stream()
+                .map(RefreshToken::getId)
+                .collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return mongoTemplate.remove(new Query(Criteria.where("id").in(ids)), RefreshToken.class).getDeletedCount();
+    }
+}
@@ -0,0 +1,43 @@
+package com.employee.repository;
+
+import com.employee.model.Role;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+
+/**
+ * The queries and updates behind refresh token issue and rotation, shared by
+ * the blocking repository and the reactive variant so both write identical
+ * documents.
+ */
+public final class RefreshTokenUpdates {
+    
+    private RefreshTokenUpdates() {
+    }
+    
+    public static Query byUserId(String userId) {
+        return new Query(Criteria.where("userId").is(userId));
+    }
+    
+    public static Update issue(String username, Role role, String tokenHash, LocalDateTime expiryDate) {
+        return new Update()
+                .set("tokenHash", tokenHash)
+                .unset("previousTokenHash")
+                .set("username", username)
+                .set("role", role)
+                .set("expiryDate", expiryDate)
+                .set("createdAt", LocalDateTime.now());
+    }
+    
+    public static Query unexpired(String tokenHash, LocalDateTime now) {
+        return new Query(Criteria.where("tokenHash").is(tokenHash).and("expiryDate").gt(now));
+    }
+    
+    public static Update rotate(String currentTokenHash, String newTokenHash) {
+        return new Update()
+                .set("tokenHash", newTokenHash)
+                .set("previousTokenHash", currentTokenHash);
+    }
+}
@@ -0,0 +1,32 @@
+package com.employee.security;
+
+import com.employee.model.Role;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collections;
+
+/**
+ * UserDetails that also carries the user's id and role, so callers holding an
+ * authenticated principal do not need to look the user up again.
+ */
+public class AuthenticatedUser extends User {
+    
+    private final String id;
+    
+    private final Role role;
+    
+    public AuthenticatedUser(String id, String username, String password, Role role) {
+        super(username, password, Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role.name())));
+        this.id = id;
+        this.role = role;
+    }
+    
+    public String getId() {
+        return id;
+    }
+    
+    public Role getRole() {
+        return role;
+    }
+}
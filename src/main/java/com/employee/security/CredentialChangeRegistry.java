@@ -0,0 +1,87 @@
+package com.employee.security;
+
+import com.employee.model.User;
+import com.employee.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory view of when each user's role or password last changed, so that
+ * access tokens issued before the change can be rejected without a database
+ * lookup per request. Changes made on other nodes are picked up by polling the
+ * indexed {@code credentialsChangedAt} field.
+ */
+@Component
+public class CredentialChangeRegistry {
+    
+    private static final Logger logger = LogManager.getLogger(CredentialChangeRegistry.class);
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Value("${jwt.expiration}")
+    private long jwtExpirationInMs;
+    
+    private final Map<String, Instant> changedAt = new ConcurrentHashMap<>();
+    
+    private volatile LocalDateTime lastPoll;
+    
+    @PostConstruct
+    public void init() {
+        lastPoll = LocalDateTime.now().minus(jwtExpirationInMs, ChronoUnit.MILLIS);
+    }
+    
+    public void recordChange(User user) {
+        if (user.getCredentialsChangedAt() == null) {
+            return;
+        }
+        Instant changed = user.getCredentialsChangedAt().atZone(ZoneId.systemDefault()).toInstant()
+                .truncatedTo(ChronoUnit.MILLIS);
+        changedAt.put(user.getUsername(), changed);
+    }
+    
+    /**
+     * Checked on every verified token, including those served from
+     * {@link VerifiedTokenCache}, so a change takes effect without touching the cache.
+     * A token is rejected unless it was issued strictly after the change. Tokens
+     * without millisecond issue times only know their second, so they must be
+     * issued in a later second than the change.
+     */
+    public boolean isRevoked(VerifiedToken token) {
+        Instant changed = changedAt.get(token.getSubject());
+        Instant issuedAt = token.getIssuedAt();
+        if (changed == null || issuedAt == null) {
+            return false;
+        }
+        Instant cutoff = issuedAt.getNano() == 0 ? changed.truncatedTo(ChronoUnit.SECONDS) : changed;
+        return !issuedAt.isAfter(cutoff);
+    }
+    
+    @Scheduled(fixedDelayString = "${jwt.credentials.poll-interval:30000}")
+    public void pollChanges() {
+        LocalDateTime since = lastPoll;
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            for (User user : userRepository.findByCredentialsChangedAtAfter(since)) {
+                recordChange(user);
+            }
+            lastPoll = now;
+            Instant cutoff = Instant.now().minus(jwtExpirationInMs, ChronoUnit.MILLIS);
+            changedAt.values().removeIf(changed -> changed.isBefore(cutoff));
+        } catch (Exception ex) {
+            logger.warn("Could not poll credential changes: {}", ex.getMessage());
+        }
+    }
+}
@@ -2,42 +2,127 @@ package com.employee.security;
 
 import com.employee.model.User;
 import com.employee.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.Collection;
-import java.util.Collections;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
     
     private static final Logger logger = LogManager.getLogger(CustomUserDetailsService.class);
     
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${security.user-cache.enabled:true}")
+    private boolean cacheEnabled;
+    
+    @Value("${security.user-cache.max-size:10000}")
+    private long cacheMaxSize;
+    
+    @Value("${security.user-cache.ttl:600000}")
+    private long cacheTtlInMs;
+    
+    private Cache<String, User> userCache;
+    
+    private Timer lookupTimer;
+    
+    @PostConstruct
+    public void init() {
+        userCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofMillis(cacheTtlInMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, userCache, "users");
+        lookupTimer = Timer.builder("security.user.lookup")
+                .description("User lookups that miss the cache and go to MongoDB")
+                .register(meterRegistry);
+    }
+    
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
+        User user = cacheEnabled ? userCache.get(username, this::findUser) : findUser(username);
         
-        logger.debug("Loading user: {}", username);
+        // A fresh UserDetails per call: the authentication manager erases
+        // credentials on the instance it is given, so it must never be cached.
+        return new AuthenticatedUser(user.getId(), user.getUsername(), user.getPassword(), user.getRole());
+    }
+    
+    /**
+     * Called by the authentication provider after a successful login whose
+     * stored hash uses an outdated scheme or cost. Only the password field is
+     * rewritten and credentialsChangedAt is left alone, because the password
+     * itself is unchanged and existing tokens must stay valid.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("username").is(userDetails.getUsername())),
+                Update.update("password", newPassword),
+                User.class);
+        evict(userDetails.getUsername());
+        logger.info("Upgraded password hash for user: {}", userDetails.getUsername());
         
-        return org.springframework.security.core.userdetails.User.builder()
-                .username(user.getUsername())
-                .password(user.getPassword())
-                .authorities(getAuthorities(user))
+        if (userDetails instanceof AuthenticatedUser authenticatedUser) {
+            return new AuthenticatedUser(authenticatedUser.getId(), authenticatedUser.getUsername(), newPassword,
+                    authenticatedUser.getRole());
+        }
+        return org.springframework.security.core.userdetails.User.withUserDetails(userDetails)
+                .password(newPassword)
                 .build();
     }
     
-    private Collection<? extends GrantedAuthority> getAuthorities(User user) {
-        return Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()));
+    public void evict(String username) {
+        userCache.invalidate(username);
+    }
+    
+    public void evictAll() {
+        userCache.invalidateAll();
+    }
+    
+    public CacheStats cacheStats() {
+        return userCache.stats();
+    }
+    
+    public long cacheSize() {
+        return userCache.estimatedSize();
+    }
+    
+    private User findUser(String username) {
+        logger.debug("Loading user: {}", username);
+        long start = System.nanoTime();
+        try {
+            return userRepository.findByUsername(username)
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
+        } finally {
+            lookupTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
     }
 }
@@ -7,8 +7,12 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -17,8 +21,11 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.Optional;
 
 @Component
+@Profile("!reactive")
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
     private static final Logger logger = LogManager.getLogger(JwtAuthenticationFilter.class);
@@ -29,16 +36,28 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsService userDetailsService;
     
+    @Autowired
+    private CredentialChangeRegistry credentialChangeRegistry;
+    
+    @Autowired
+    private TokenRevocationList revocationList;
+    
+    @Value("${jwt.stateless:false}")
+    private boolean stateless;
+    
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         try {
             String jwt = getJwtFromRequest(request);
             
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String username = tokenProvider.getUsernameFromToken(jwt);
-                
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            Optional<VerifiedToken> verified = StringUtils.hasText(jwt) ? tokenProvider.verifyToken(jwt) : Optional.empty();
+            if (verified.isPresent() && revocationList.isRevoked(verified.get())) {
+                logger.warn("Rejected revoked token for user: {}", verified.get().getSubject());
+            } else if (verified.isPresent() && credentialChangeRegistry.isRevoked(verified.get())) {
+                logger.warn("Rejected token issued before credentials changed for user: {}", verified.get().getSubject());
+            } else if (verified.isPresent()) {
+                UserDetails userDetails = loadUserDetails(verified.get());
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -46,12 +65,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 SecurityContextHolder.getContext().setAuthentication(authentication);
             }
         } catch (Exception ex) {
-            logger.error("Could not set user authentication in security context", ex);
+            logger.warn("Could not set user authentication in security context: {}", ex.getMessage());
         }
         
         filterChain.doFilter(request, response);
     }
     
+    private UserDetails loadUserDetails(VerifiedToken token) {
+        if (stateless && token.getRole() != null) {
+            return User.withUsername(token.getSubject())
+                    .password("")
+                    .authorities(Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + token.getRole().name())))
+                    .build();
+        }
+        return userDetailsService.loadUserByUsername(token.getSubject());
+    }
+    
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
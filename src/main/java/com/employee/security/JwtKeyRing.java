@@ -0,0 +1,278 @@
+package com.employee.security;
+
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.PrivateJwk;
+import io.jsonwebtoken.security.PublicJwk;
+import jakarta.annotation.PostConstruct;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Asymmetric signing keys (RSA, EC or EdDSA) loaded from PEM and JWK files in
+ * {@code jwt.keys.location}. The directory is re-scanned periodically, so keys
+ * can be added or rotated without a restart; each scan swaps in a new
+ * immutable snapshot that verifiers read by {@code kid}.
+ */
+@Component
+public class JwtKeyRing {
+    
+    private static final Logger logger = LogManager.getLogger(JwtKeyRing.class);
+    
+    private static final Pattern PEM_BLOCK = Pattern.compile(
+            "-----BEGIN ([A-Z ]+)-----([A-Za-z0-9+/=\\s]+)-----END \\1-----");
+    
+    private static final String[] KEY_ALGORITHMS = {"RSA", "EC", "Ed25519", "Ed448"};
+    
+    @Value("${jwt.keys.location:}")
+    private String location;
+    
+    @Value("${jwt.keys.active-kid:}")
+    private String activeKid;
+    
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    
+    private volatile String fingerprint = "";
+    
+    @PostConstruct
+    public void init() {
+        reload();
+    }
+    
+    public boolean isEnabled() {
+        return snapshot.active != null;
+    }
+    
+    public SigningKey getActiveKey() {
+        return snapshot.active;
+    }
+    
+    public PublicKey getVerificationKey(String kid) {
+        SigningKey key = snapshot.keys.get(kid);
+        return key != null ? key.getPublicKey() : null;
+    }
+    
+    public String getJwksJson() {
+        return snapshot.jwksJson;
+    }
+    
+    public String getVersion() {
+        return snapshot.version;
+    }
+    
+    @Scheduled(fixedDelayString = "${jwt.keys.reload-interval:60000}")
+    public void reload() {
+        if (!StringUtils.hasText(location)) {
+            return;
+        }
+        try {
+            List<Path> files = listKeyFiles(Paths.get(location));
+            String current = fingerprint(files);
+            if (current.equals(fingerprint)) {
+                return;
+            }
+            Map<String, SigningKey> keys = new HashMap<>();
+            SigningKey newest = null;
+            for (Path file : files) {
+                for (SigningKey key : load(file)) {
+                    keys.put(key.getKid(), key);
+                    if (key.getPrivateKey() != null) {
+                        newest = key;
+                    }
+                }
+            }
+            snapshot = Snapshot.of(keys, selectActive(keys, newest));
+            fingerprint = current;
+            logger.info("Loaded {} signing key(s) from {}, active kid: {}", keys.size(), location,
+                    snapshot.active != null ? snapshot.active.getKid() : "none");
+        } catch (Exception ex) {
+            logger.error("Could not reload signing keys from {}: {}", location, ex.getMessage());
+        }
+    }
+    
+    private SigningKey selectActive(Map<String, SigningKey> keys, SigningKey newest) {
+        if (StringUtils.hasText(activeKid)) {
+            SigningKey key = keys.get(activeKid);
+            if (key == null || key.getPrivateKey() == null) {
+                throw new IllegalStateException("Active key " + activeKid + " has no private key");
+            }
+            return key;
+        }
+        // Without an explicit kid the most recently written private key signs.
+        return newest;
+    }
+    
+    private List<Path> listKeyFiles(Path dir) throws IOException {
+        try (Stream<Path> stream = Files.list(dir)) {
+            return stream
+                    .filter(Files::isRegularFile)
+                    .filter(p -> p.toString().endsWith(".pem") || p.toString().endsWith(".json"))
+                    .sorted(Comparator.comparingLong(this::lastModified).thenComparing(Path::toString))
+                    .collect(Collectors.toList());
+        }
+    }
+    
+    private String fingerprint(List<Path> files) {
+        return files.stream()
+                .map(p -> p.getFileName() + ":" + lastModified(p))
+                .collect(Collectors.joining(","));
+    }
+    
+    private long lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+    
+    private List<SigningKey> load(Path file) throws IOException, GeneralSecurityException {
+        String content = Files.readString(file, StandardCharsets.UTF_8);
+        if (file.toString().endsWith(".pem")) {
+            return Collections.singletonList(loadPem(kidOf(file), content));
+        }
+        if (content.contains("\"keys\"")) {
+            JwkSet set = Jwks.setParser().build().parse(content);
+            List<SigningKey> keys = new ArrayList<>();
+            for (Jwk<?> jwk : set) {
+                keys.add(fromJwk(jwk.getId(), jwk));
+            }
+            return keys;
+        }
+        Jwk<?> jwk = Jwks.parser().build().parse(content);
+        return Collections.singletonList(fromJwk(jwk.getId() != null ? jwk.getId() : kidOf(file), jwk));
+    }
+    
+    private SigningKey loadPem(String kid, String content) throws GeneralSecurityException {
+        PrivateKey privateKey = null;
+        PublicKey publicKey = null;
+        Matcher matcher = PEM_BLOCK.matcher(content);
+        while (matcher.find()) {
+            byte[] der = Base64.getMimeDecoder().decode(matcher.group(2));
+            if ("PRIVATE KEY".equals(matcher.group(1))) {
+                privateKey = (PrivateKey) generate(der, true);
+            } else if ("PUBLIC KEY".equals(matcher.group(1))) {
+                publicKey = (PublicKey) generate(der, false);
+            }
+        }
+        if (publicKey == null) {
+            throw new GeneralSecurityException("PEM key " + kid + " has no PUBLIC KEY block");
+        }
+        PublicJwk<?> jwk = Jwks.builder().key(publicKey).id(kid).build();
+        return new SigningKey(kid, privateKey, publicKey, jwk);
+    }
+    
+    private SigningKey fromJwk(String kid, Jwk<?> jwk) {
+        if (jwk instanceof PrivateJwk<?, ?, ?> privateJwk) {
+            PublicJwk<?> publicJwk = privateJwk.toPublicJwk();
+            return new SigningKey(kid, privateJwk.toKeyPair().getPrivate(), publicJwk.toKey(),
+                    Jwks.builder().key(publicJwk.toKey()).id(kid).build());
+        }
+        if (jwk instanceof PublicJwk<?> publicJwk) {
+            return new SigningKey(kid, null, publicJwk.toKey(), Jwks.builder().key(publicJwk.toKey()).id(kid).build());
+        }
+        throw new IllegalArgumentException("JWK " + kid + " is not an asymmetric key");
+    }
+    
+    private static Object generate(byte[] der, boolean isPrivate) throws GeneralSecurityException {
+        for (String algorithm : KEY_ALGORITHMS) {
+            try {
+                KeyFactory factory = KeyFactory.getInstance(algorithm);
+                return isPrivate
+                        ? factory.generatePrivate(new PKCS8EncodedKeySpec(der))
+                        : factory.generatePublic(new X509EncodedKeySpec(der));
+            } catch (GeneralSecurityException ignored) {
+                // try the next algorithm
+            }
+        }
+        throw new GeneralSecurityException("Unsupported key encoding");
+    }
+    
+    private static String kidOf(Path file) {
+        String name = file.getFileName().toString();
+        return name.substring(0, name.lastIndexOf('.'));
+    }
+    
+    public static final class SigningKey {
+        private final String kid;
+        private final PrivateKey privateKey;
+        private final PublicKey publicKey;
+        private final PublicJwk<?> jwk;
+        
+        SigningKey(String kid, PrivateKey privateKey, PublicKey publicKey, PublicJwk<?> jwk) {
+            this.kid = kid;
+            this.privateKey = privateKey;
+            this.publicKey = publicKey;
+            this.jwk = jwk;
+        }
+        
+        public String getKid() {
+            return kid;
+        }
+        
+        public PrivateKey getPrivateKey() {
+            return privateKey;
+        }
+        
+        public PublicKey getPublicKey() {
+            return publicKey;
+        }
+        
+        public PublicJwk<?> getJwk() {
+            return jwk;
+        }
+    }
+    
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(Collections.emptyMap(), null, "{\"keys\":[]}", "0");
+        
+        final Map<String, SigningKey> keys;
+        final SigningKey active;
+        final String jwksJson;
+        final String version;
+        
+        private Snapshot(Map<String, SigningKey> keys, SigningKey active, String jwksJson, String version) {
+            this.keys = keys;
+            this.active = active;
+            this.jwksJson = jwksJson;
+            this.version = version;
+        }
+        
+        static Snapshot of(Map<String, SigningKey> keys, SigningKey active) {
+            String jwks = keys.values().stream()
+                    .sorted(Comparator.comparing(SigningKey::getKid))
+                    .map(key -> Jwks.json(key.getJwk()))
+                    .collect(Collectors.joining(",", "{\"keys\":[", "]}"));
+            return new Snapshot(Collections.unmodifiableMap(new HashMap<>(keys)), active, jwks,
+                    Integer.toHexString(jwks.hashCode()));
+        }
+    }
+}
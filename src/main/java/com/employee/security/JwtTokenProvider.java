@@ -1,120 +1,233 @@
 package com.employee.security;
 
+import com.employee.model.Role;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtTokenProvider {
     
     private static final Logger logger = LogManager.getLogger(JwtTokenProvider.class);
     
+    private static final String ROLE_CLAIM = "role";
+    // iat only has whole seconds; this carries the milliseconds for CredentialChangeRegistry.
+    private static final String ISSUED_AT_MS_CLAIM = "iat_ms";
+    private static final String ROLE_PREFIX = "ROLE_";
+    
     @Value("${jwt.secret}")
     private String jwtSecret;
     
     @Value("${jwt.expiration}")
     private long jwtExpirationInMs;
     
-    @Value("${jwt.refresh.expiration}")
-    private long refreshTokenExpirationInMs;
+    @Value("${jwt.keys.accept-hmac:true}")
+    private boolean acceptHmac;
+    
+    @Autowired
+    private VerifiedTokenCache tokenCache;
+    
+    @Autowired
+    private JwtKeyRing keyRing;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private SecretKey signingKey;
+    
+    private JwtParser parser;
+    
+    private Timer cachedTimer;
+    
+    private Timer parsedTimer;
+    
+    private Timer rejectedTimer;
+    
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser()
+                .keyLocator(new KeyRingLocator())
+                .build();
+        cachedTimer = verifyTimer("cache", "valid");
+        parsedTimer = verifyTimer("parser", "valid");
+        rejectedTimer = verifyTimer("parser", "invalid");
+    }
     
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+    private Timer verifyTimer(String source, String outcome) {
+        return Timer.builder("jwt.verify")
+                .description("Access token verification")
+                .tag("source", source)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
     }
     
     public String generateToken(Authentication authentication) {
         UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        Map<String, Object> claims = new HashMap<>();
-        return createToken(claims, userDetails.getUsername());
+        return generateToken(userDetails.getUsername(), getRole(userDetails));
     }
     
-    public String generateTokenFromUsername(String username) {
+    public String generateToken(String username, Role role) {
         Map<String, Object> claims = new HashMap<>();
+        if (role != null) {
+            claims.put(ROLE_CLAIM, role.name());
+        }
         return createToken(claims, username);
     }
     
-    public String generateRefreshToken(String username) {
-        Map<String, Object> claims = new HashMap<>();
-        claims.put("type", "refresh");
-        return createRefreshToken(claims, username);
+    public String generateTokenFromUsername(String username) {
+        return generateToken(username, null);
     }
     
     private String createToken(Map<String, Object> claims, String subject) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpirationInMs);
         
-        return Jwts.builder()
+        return sign(Jwts.builder()
+                .id(OpaqueTokens.generateId())
                 .claims(claims)
                 .subject(subject)
                 .issuedAt(now)
-                .expiration(expiryDate)
-                .signWith(getSigningKey())
-                .compact();
+                .claim(ISSUED_AT_MS_CLAIM, now.getTime())
+                .expiration(expiryDate));
     }
     
-    private String createRefreshToken(Map<String, Object> claims, String subject) {
-        Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + refreshTokenExpirationInMs);
-        
-        return Jwts.builder()
-                .claims(claims)
-                .subject(subject)
-                .issuedAt(now)
-                .expiration(expiryDate)
-                .signWith(getSigningKey())
-                .compact();
+    private String sign(JwtBuilder builder) {
+        JwtKeyRing.SigningKey activeKey = keyRing.getActiveKey();
+        if (activeKey != null) {
+            return builder.header().keyId(activeKey.getKid()).and()
+                    .signWith(activeKey.getPrivateKey())
+                    .compact();
+        }
+        return builder.signWith(signingKey).compact();
     }
     
-    public String getUsernameFromToken(String token) {
-        return getClaimFromToken(token, Claims::getSubject);
+    /**
+     * Parses and verifies the token exactly once. Expired tokens and bad
+     * signatures are rejected by the parser itself; tokens already verified
+     * are served from {@link VerifiedTokenCache}.
+     */
+    public VerifiedToken verify(String token) throws JwtException {
+        long start = System.nanoTime();
+        VerifiedToken cached = tokenCache.get(token);
+        if (cached != null) {
+            cachedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return cached;
+        }
+        VerifiedToken verified;
+        try {
+            verified = parse(token);
+        } catch (RuntimeException ex) {
+            rejectedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw ex;
+        }
+        tokenCache.put(token, verified);
+        parsedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return verified;
     }
     
-    public Date getExpirationDateFromToken(String token) {
-        return getClaimFromToken(token, Claims::getExpiration);
+    private VerifiedToken parse(String token) {
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        String role = claims.get(ROLE_CLAIM, String.class);
+        return new VerifiedToken(
+                claims.getId(),
+                claims.getSubject(),
+                role != null ? Role.valueOf(role) : null,
+                issuedAt(claims),
+                claims.getExpiration().toInstant());
     }
     
-    public <T> T getClaimFromToken(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = getAllClaimsFromToken(token);
-        return claimsResolver.apply(claims);
+    private static Instant issuedAt(Claims claims) {
+        Date issuedAt = claims.getIssuedAt();
+        if (issuedAt == null) {
+            return null;
+        }
+        Long millis = claims.get(ISSUED_AT_MS_CLAIM, Long.class);
+        if (millis != null && millis / 1000 == issuedAt.getTime() / 1000) {
+            return Instant.ofEpochMilli(millis);
+        }
+        return issuedAt.toInstant();
     }
     
-    private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    public Optional<VerifiedToken> verifyToken(String token) {
+        try {
+            return Optional.of(verify(token));
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.warn("Token validation failed: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+    
+    public String getUsernameFromToken(String token) {
+        return verify(token).getSubject();
+    }
+    
+    public Date getExpirationDateFromToken(String token) {
+        return Date.from(verify(token).getExpiration());
     }
     
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = getUsernameFromToken(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return verifyToken(token)
+                .map(verified -> verified.getSubject().equals(userDetails.getUsername()))
+                .orElse(false);
     }
     
     public Boolean validateToken(String token) {
-        try {
-            return !isTokenExpired(token);
-        } catch (Exception e) {
-            logger.error("Token validation failed: {}", e.getMessage());
-            return false;
+        return verifyToken(token).isPresent();
+    }
+    
+    private Role getRole(UserDetails userDetails) {
+        for (GrantedAuthority authority : userDetails.getAuthorities()) {
+            String name = authority.getAuthority();
+            if (name != null && name.startsWith(ROLE_PREFIX)) {
+                return Role.valueOf(name.substring(ROLE_PREFIX.length()));
+            }
         }
+        return null;
     }
     
-    private Boolean isTokenExpired(String token) {
-        final Date expiration = getExpirationDateFromToken(token);
-        return expiration.before(new Date());
+    private class KeyRingLocator extends LocatorAdapter<Key> {
+        
+        @Override
+        protected Key locate(JwsHeader header) {
+            String kid = header.getKeyId();
+            if (kid != null) {
+                Key key = keyRing.getVerificationKey(kid);
+                if (key == null) {
+                    throw new JwtException("Unknown signing key id: " + kid);
+                }
+                return key;
+            }
+            if (!acceptHmac && keyRing.isEnabled()) {
+                throw new JwtException("Token has no key id");
+            }
+            return signingKey;
+        }
     }
 }
@@ -0,0 +1,83 @@
+package com.employee.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * High-entropy opaque tokens and their SHA-256 digests. Only the digest is ever
+ * stored or used as a lookup key, so a leaked collection yields no usable tokens.
+ * Callers pick one of a few DRBG instances at random: {@code UUID.randomUUID()}
+ * and the default NativePRNG serialize all callers on one shared lock. The
+ * instances are striped rather than per-thread because under virtual threads
+ * every request runs on a new thread, and a ThreadLocal would seed a fresh
+ * DRBG each time.
+ */
+public final class OpaqueTokens {
+    
+    private static final int TOKEN_BYTES = 32;
+    
+    private static final int ID_BYTES = 16;
+    
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    
+    private static final int STRIPES = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+    
+    private static final SecureRandom[] RANDOMS = newRandoms(STRIPES);
+    
+    private static final MessageDigest SHA_256 = newDigest();
+    
+    private OpaqueTokens() {
+    }
+    
+    public static String generate() {
+        return random(TOKEN_BYTES);
+    }
+    
+    public static String generateId() {
+        return random(ID_BYTES);
+    }
+    
+    public static String hash(String token) {
+        MessageDigest digest = copy(SHA_256);
+        return ENCODER.encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+    
+    private static String random(int length) {
+        byte[] bytes = new byte[length];
+        RANDOMS[ThreadLocalRandom.current().nextInt(RANDOMS.length)].nextBytes(bytes);
+        return ENCODER.encodeToString(bytes);
+    }
+    
+    private static SecureRandom[] newRandoms(int count) {
+        SecureRandom[] randoms = new SecureRandom[count];
+        for (int i = 0; i < count; i++) {
+            try {
+                randoms[i] = SecureRandom.getInstance("DRBG");
+            } catch (NoSuchAlgorithmException e) {
+                randoms[i] = new SecureRandom();
+            }
+        }
+        return randoms;
+    }
+    
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
+    // Cloning the prototype skips the provider lookup of MessageDigest.getInstance.
+    private static MessageDigest copy(MessageDigest prototype) {
+        try {
+            return (MessageDigest) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            return newDigest();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.employee.security;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Picks the BCrypt cost whose hash time on this machine comes closest to a
+ * target latency without exceeding it. Each extra cost step doubles the work,
+ * so one timed hash at a low cost is enough to extrapolate.
+ */
+public final class PasswordHashCalibrator {
+    
+    private static final Logger logger = LogManager.getLogger(PasswordHashCalibrator.class);
+    
+    public static final int MIN_STRENGTH = 10;
+    
+    public static final int MAX_STRENGTH = 16;
+    
+    private static final int PROBE_STRENGTH = 8;
+    
+    private static final int PROBE_ROUNDS = 3;
+    
+    private PasswordHashCalibrator() {
+    }
+    
+    public static int calibrateBCrypt(long targetInMs) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(PROBE_STRENGTH);
+        probe.encode("calibration-warmup");
+        
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < PROBE_ROUNDS; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibration-probe");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        
+        double probeInMs = Math.max(best / 1_000_000.0, 0.01);
+        int steps = (int) Math.floor(Math.log(targetInMs / probeInMs) / Math.log(2));
+        int strength = Math.max(MIN_STRENGTH, Math.min(MAX_STRENGTH, PROBE_STRENGTH + steps));
+        
+        logger.info("BCrypt cost {} took {} ms; using cost {} for a {} ms target",
+                PROBE_STRENGTH, String.format("%.2f", probeInMs), strength, targetInMs);
+        return strength;
+    }
+}
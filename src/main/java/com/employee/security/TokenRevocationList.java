@@ -0,0 +1,120 @@
+package com.employee.security;
+
+import com.employee.model.RevokedToken;
+import com.employee.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Node-local mirror of the revoked_tokens collection. A Bloom filter answers the
+ * common "not revoked" case without touching the exact set, which is consulted
+ * only on a filter hit. Revocations from other nodes are pulled incrementally by
+ * revokedAt; entries past the token's own expiry are pruned and the filter is
+ * rebuilt, since a Bloom filter cannot delete.
+ */
+@Component
+public class TokenRevocationList {
+    
+    private static final Logger logger = LogManager.getLogger(TokenRevocationList.class);
+    
+    // Re-read a little history on each poll so small clock skew between nodes cannot hide a revocation.
+    private static final long POLL_OVERLAP_SECONDS = 5;
+    
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${jwt.revocation.expected-entries:100000}")
+    private int expectedEntries;
+    
+    @Value("${jwt.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+    
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+    
+    private final Object writeLock = new Object();
+    
+    private volatile BloomFilter filter;
+    
+    private volatile LocalDateTime lastPoll;
+    
+    @PostConstruct
+    public void init() {
+        filter = new BloomFilter(expectedEntries, falsePositiveRate);
+        lastPoll = LocalDateTime.now();
+        try {
+            revokedTokenRepository.findByExpiresAtAfter(lastPoll).forEach(this::add);
+            logger.info("Loaded {} revoked tokens", revoked.size());
+        } catch (Exception ex) {
+            logger.warn("Could not load revoked tokens: {}", ex.getMessage());
+        }
+        Gauge.builder("jwt.revocation.size", revoked, Map::size)
+                .description("Revoked access tokens that have not expired yet")
+                .register(meterRegistry);
+    }
+    
+    public boolean isRevoked(VerifiedToken token) {
+        String tokenId = token.getTokenId();
+        return tokenId != null && filter.mightContain(tokenId) && revoked.containsKey(tokenId);
+    }
+    
+    public void revoke(VerifiedToken token) {
+        if (token.getTokenId() == null) {
+            return;
+        }
+        RevokedToken revokedToken = new RevokedToken(token.getTokenId(), token.getSubject(), LocalDateTime.now(),
+                LocalDateTime.ofInstant(token.getExpiration(), ZoneId.systemDefault()));
+        revokedTokenRepository.save(revokedToken);
+        add(revokedToken);
+    }
+    
+    public int size() {
+        return revoked.size();
+    }
+    
+    @Scheduled(fixedDelayString = "${jwt.revocation.poll-interval:5000}")
+    public void refresh() {
+        LocalDateTime since = lastPoll;
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            revokedTokenRepository.findByRevokedAtAfter(since.minusSeconds(POLL_OVERLAP_SECONDS)).forEach(this::add);
+            lastPoll = now;
+        } catch (Exception ex) {
+            logger.warn("Could not refresh revoked tokens: {}", ex.getMessage());
+        }
+        prune();
+    }
+    
+    private void add(RevokedToken revokedToken) {
+        synchronized (writeLock) {
+            revoked.put(revokedToken.getId(), revokedToken.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant());
+            filter.put(revokedToken.getId());
+        }
+    }
+    
+    private void prune() {
+        Instant now = Instant.now();
+        synchronized (writeLock) {
+            if (revoked.values().removeIf(expiresAt -> expiresAt.isBefore(now))) {
+                BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, revoked.size()), falsePositiveRate);
+                revoked.keySet().forEach(rebuilt::put);
+                filter = rebuilt;
+            }
+        }
+    }
+}
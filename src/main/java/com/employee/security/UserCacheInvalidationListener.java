@@ -0,0 +1,43 @@
+package com.employee.security;
+
+import com.employee.model.RefreshToken;
+import com.employee.model.User;
+import com.employee.repository.RefreshTokenUpdates;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+@Component
+public class UserCacheInvalidationListener extends AbstractMongoEventListener<User> {
+    
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+    
+    @Autowired
+    private CredentialChangeRegistry credentialChangeRegistry;
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    @Override
+    public void onAfterSave(AfterSaveEvent<User> event) {
+        User user = event.getSource();
+        userDetailsService.evict(user.getUsername());
+        credentialChangeRegistry.recordChange(user);
+    }
+    
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<User> event) {
+        // Only the id of a deleted user is known here, not the username key.
+        userDetailsService.evictAll();
+        // Refresh does not look the user up, so a deleted user's refresh token has to go with it.
+        Object id = event.getSource().get("_id");
+        if (id instanceof ObjectId objectId) {
+            mongoTemplate.remove(RefreshTokenUpdates.byUserId(objectId.toHexString()), RefreshToken.class);
+        }
+    }
+}
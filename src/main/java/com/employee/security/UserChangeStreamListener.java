@@ -0,0 +1,75 @@
+package com.employee.security;
+
+import com.employee.model.User;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.messaging.ChangeStreamRequest;
+import org.springframework.data.mongodb.core.messaging.DefaultMessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.Message;
+import org.springframework.data.mongodb.core.messaging.MessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the user details cache consistent across nodes by listening to the
+ * users collection change stream. Requires MongoDB to run as a replica set,
+ * so it is only enabled with {@code security.user-cache.change-streams=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "security.user-cache.change-streams", havingValue = "true")
+public class UserChangeStreamListener {
+    
+    private static final Logger logger = LogManager.getLogger(UserChangeStreamListener.class);
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+    
+    @Autowired
+    private CredentialChangeRegistry credentialChangeRegistry;
+    
+    private MessageListenerContainer container;
+    
+    @PostConstruct
+    public void start() {
+        container = new DefaultMessageListenerContainer(mongoTemplate);
+        ChangeStreamRequest<User> request = ChangeStreamRequest.builder(this::onChange)
+                .collection(mongoTemplate.getCollectionName(User.class))
+                .fullDocumentLookup(FullDocument.UPDATE_LOOKUP)
+                .build();
+        container.register(request, User.class);
+        container.start();
+        logger.info("Listening for user changes on the users change stream");
+    }
+    
+    @PreDestroy
+    public void stop() {
+        if (container != null) {
+            container.stop();
+        }
+    }
+    
+    private void onChange(Message<ChangeStreamDocument<Document>, User> message) {
+        ChangeStreamDocument<Document> raw = message.getRaw();
+        User user = message.getBody();
+        if (raw != null && raw.getOperationType() == OperationType.INSERT) {
+            return;
+        }
+        if (user == null) {
+            userDetailsService.evictAll();
+            return;
+        }
+        userDetailsService.evict(user.getUsername());
+        credentialChangeRegistry.recordChange(user);
+    }
+}
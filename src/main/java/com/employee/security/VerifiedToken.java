@@ -0,0 +1,19 @@
+package com.employee.security;
+
+import com.employee.model.Role;
+import lombok.Value;
+
+import java.time.Instant;
+
+@Value
+public class VerifiedToken {
+    String tokenId;
+    String subject;
+    Role role;
+    Instant issuedAt;
+    Instant expiration;
+    
+    public boolean isExpired() {
+        return expiration.isBefore(Instant.now());
+    }
+}
@@ -0,0 +1,105 @@
+package com.employee.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Bounded cache of verified access tokens, keyed by the SHA-256 digest of the
+ * compact token so raw tokens are never held in memory. Entries expire after
+ * the configured TTL or at the token's own expiry, whichever comes first.
+ * Only the signature check is cached: revocations and credential changes are
+ * checked by the filter on every request, so entries never need evicting.
+ */
+@Component
+public class VerifiedTokenCache {
+    
+    private static final Logger logger = LogManager.getLogger(VerifiedTokenCache.class);
+    
+    @Value("${jwt.cache.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${jwt.cache.max-size:10000}")
+    private long maxSize;
+    
+    @Value("${jwt.cache.ttl:300000}")
+    private long ttlInMs;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private Cache<String, VerifiedToken> cache;
+    
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry(ttlInMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.tokens");
+        logger.info("Verified token cache {} (maxSize={}, ttl={}ms)", enabled ? "enabled" : "disabled", maxSize, ttlInMs);
+    }
+    
+    public VerifiedToken get(String token) {
+        if (!enabled) {
+            return null;
+        }
+        return cache.getIfPresent(OpaqueTokens.hash(token));
+    }
+    
+    public void put(String token, VerifiedToken verified) {
+        if (enabled && !verified.isExpired()) {
+            cache.put(OpaqueTokens.hash(token), verified);
+        }
+    }
+    
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+    
+    public CacheStats stats() {
+        return cache.stats();
+    }
+    
+    public long size() {
+        return cache.estimatedSize();
+    }
+    
+    private static class TokenExpiry implements Expiry<String, VerifiedToken> {
+        
+        private final long ttlInNanos;
+        
+        TokenExpiry(long ttlInMs) {
+            this.ttlInNanos = Duration.ofMillis(ttlInMs).toNanos();
+        }
+        
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            long untilExpiry = Duration.between(Instant.now(), value.getExpiration()).toNanos();
+            return Math.max(0, Math.min(ttlInNanos, untilExpiry));
+        }
+        
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+        
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
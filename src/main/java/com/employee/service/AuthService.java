@@ -5,16 +5,24 @@ import com.employee.dto.AuthResponse;
 import com.employee.dto.LoginRequest;
 import com.employee.dto.RefreshTokenRequest;
 import com.employee.exception.BadRequestException;
+import com.employee.exception.ResourceNotFoundException;
 import com.employee.exception.UnauthorizedException;
 import com.employee.model.RefreshToken;
 import com.employee.model.Role;
 import com.employee.model.User;
 import com.employee.repository.RefreshTokenRepository;
 import com.employee.repository.UserRepository;
+import com.employee.security.AuthenticatedUser;
+import com.employee.security.CredentialChangeRegistry;
 import com.employee.security.JwtTokenProvider;
+import com.employee.security.OpaqueTokens;
+import com.employee.security.TokenRevocationList;
+import com.employee.security.VerifiedToken;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -24,9 +32,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.UUID;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
 
 @Service
+@Profile("!reactive")
 public class AuthService {
     
     private static final Logger logger = LogManager.getLogger(AuthService.class);
@@ -46,9 +56,18 @@ public class AuthService {
     @Autowired
     private AuthenticationManager authenticationManager;
     
+    @Autowired
+    private TokenRevocationList revocationList;
+    
+    @Autowired
+    private CredentialChangeRegistry credentialChangeRegistry;
+    
+    @Value("${jwt.refresh.expiration}")
+    private long refreshTokenExpirationInMs;
+    
     @Transactional
     public AuthResponse register(AuthRequest request) {
-        logger.info("Registering new user: {}", request.getUsername());
+        logger.debug("Registering new user: {}", request.getUsername());
         
         if (userRepository.existsByUsername(request.getUsername())) {
             throw new BadRequestException("Username is already taken");
@@ -69,11 +88,10 @@ public class AuthService {
         user = userRepository.save(user);
         logger.info("User registered successfully: {}", user.getUsername());
         
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword()));
-        
-        String accessToken = tokenProvider.generateToken(authentication);
-        String refreshToken = createRefreshToken(user.getId());
+        // The password was hashed a moment ago; authenticating it again would
+        // only repeat the user lookup and the BCrypt work.
+        String accessToken = tokenProvider.generateToken(user.getUsername(), user.getRole());
+        String refreshToken = createRefreshToken(user.getId(), user.getUsername(), user.getRole());
         
         AuthResponse response = new AuthResponse();
         response.setAccessToken(accessToken);
@@ -85,18 +103,17 @@ public class AuthService {
     }
     
     public AuthResponse login(LoginRequest request) {
-        logger.info("Login attempt for user: {}", request.getUsername());
+        logger.debug("Login attempt for user: {}", request.getUsername());
         
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword()));
         
         SecurityContextHolder.getContext().setAuthentication(authentication);
         
-        User user = userRepository.findByUsername(request.getUsername())
-                .orElseThrow(() -> new BadRequestException("User not found"));
+        AuthenticatedUser user = (AuthenticatedUser) authentication.getPrincipal();
         
-        String accessToken = tokenProvider.generateToken(authentication);
-        String refreshToken = createRefreshToken(user.getId());
+        String accessToken = tokenProvider.generateToken(user.getUsername(), user.getRole());
+        String refreshToken = createRefreshToken(user.getId(), user.getUsername(), user.getRole());
         
         logger.info("User logged in successfully: {}", user.getUsername());
         
@@ -110,47 +127,106 @@ public class AuthService {
     }
     
     public AuthResponse refreshToken(RefreshTokenRequest request) {
-        logger.info("Refreshing token");
+        logger.debug("Refreshing token");
         
-        RefreshToken refreshToken = refreshTokenRepository.findByToken(request.getRefreshToken())
-                .orElseThrow(() -> new UnauthorizedException("Invalid refresh token"));
+        String presentedHash = OpaqueTokens.hash(request.getRefreshToken());
+        String newToken = OpaqueTokens.generate();
+        RefreshToken refreshToken = refreshTokenRepository.rotate(
+                presentedHash, OpaqueTokens.hash(newToken), LocalDateTime.now());
         
-        if (refreshToken.getExpiryDate().isBefore(LocalDateTime.now())) {
-            refreshTokenRepository.delete(refreshToken);
-            throw new UnauthorizedException("Refresh token has expired");
+        if (refreshToken == null) {
+            throw rejectRefreshToken(presentedHash);
         }
         
-        User user = userRepository.findById(refreshToken.getUserId())
-                .orElseThrow(() -> new UnauthorizedException("User not found"));
-        
-        String newAccessToken = tokenProvider.generateTokenFromUsername(user.getUsername());
+        // The username and role stored with the token are trusted: a credential change or
+        // a deleted user removes the token, so no user lookup is needed here.
+        String newAccessToken = tokenProvider.generateToken(refreshToken.getUsername(), refreshToken.getRole());
         
         AuthResponse response = new AuthResponse();
         response.setAccessToken(newAccessToken);
-        response.setRefreshToken(refreshToken.getToken());
-        response.setUsername(user.getUsername());
-        response.setRole(user.getRole());
+        response.setRefreshToken(newToken);
+        response.setUsername(refreshToken.getUsername());
+        response.setRole(refreshToken.getRole());
         
-        logger.info("Token refreshed successfully for user: {}", user.getUsername());
+        logger.debug("Token refreshed successfully for user: {}", refreshToken.getUsername());
         
         return response;
     }
     
-    private String createRefreshToken(String userId) {
-        RefreshToken existingToken = refreshTokenRepository.findByUserId(userId)
-                .orElse(null);
+    public void logout(String accessToken) {
+        VerifiedToken token = tokenProvider.verifyToken(accessToken)
+                .orElseThrow(() -> new UnauthorizedException("Invalid access token"));
         
-        if (existingToken != null) {
-            refreshTokenRepository.delete(existingToken);
+        revocationList.revoke(token);
+        // Resolved through the unique username index so the delete can use the userId index.
+        userRepository.findByUsername(token.getSubject())
+                .ifPresent(user -> refreshTokenRepository.deleteByUserId(user.getId()));
+        
+        logger.info("User logged out: {}", token.getSubject());
+    }
+    
+    /**
+     * Changes the user's password and signs out every session: access tokens
+     * issued before the change are rejected and the refresh token is deleted.
+     */
+    @Transactional
+    public void changePassword(String username, String newPassword) {
+        User user = findUser(username);
+        user.setPassword(passwordEncoder.encode(newPassword));
+        saveCredentialChange(user);
+    }
+    
+    /**
+     * Changes the user's role and signs out every session, so no token keeps
+     * the old role.
+     */
+    @Transactional
+    public void changeRole(String username, Role role) {
+        User user = findUser(username);
+        user.setRole(role);
+        saveCredentialChange(user);
+    }
+    
+    private User findUser(String username) {
+        return userRepository.findByUsername(username)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + username));
+    }
+    
+    private void saveCredentialChange(User user) {
+        LocalDateTime now = LocalDateTime.now();
+        user.setCredentialsChangedAt(now);
+        user.setUpdatedAt(now);
+        userRepository.save(user);
+        // Refresh issues from the role stored with the token, so the token goes too.
+        // Deleted after the save, so a login in between cannot keep the old credentials.
+        refreshTokenRepository.deleteByUserId(user.getId());
+        // Other nodes pick the change up on their next poll.
+        credentialChangeRegistry.recordChange(user);
+        logger.info("Credentials changed for user: {}", user.getUsername());
+    }
+    
+    private UnauthorizedException rejectRefreshToken(String tokenHash) {
+        Optional<RefreshToken> rotated = refreshTokenRepository.findByPreviousTokenHash(tokenHash);
+        if (rotated.isPresent()) {
+            // A rotated-out token came back: assume it was stolen and revoke the whole session.
+            logger.warn("Refresh token reuse detected for user: {}", rotated.get().getUsername());
+            refreshTokenRepository.delete(rotated.get());
+            return new UnauthorizedException("Refresh token has already been used");
         }
         
-        RefreshToken refreshToken = new RefreshToken();
-        refreshToken.setUserId(userId);
-        refreshToken.setToken(UUID.randomUUID().toString());
-        refreshToken.setExpiryDate(LocalDateTime.now().plusDays(7));
-        refreshToken.setCreatedAt(LocalDateTime.now());
+        Optional<RefreshToken> expired = refreshTokenRepository.findByTokenHash(tokenHash);
+        if (expired.isPresent()) {
+            refreshTokenRepository.delete(expired.get());
+            return new UnauthorizedException("Refresh token has expired");
+        }
         
-        refreshToken = refreshTokenRepository.save(refreshToken);
-        return refreshToken.getToken();
+        return new UnauthorizedException("Invalid refresh token");
+    }
+    
+    private String createRefreshToken(String userId, String username, Role role) {
+        String token = OpaqueTokens.generate();
+        refreshTokenRepository.issue(userId, username, role,
+                OpaqueTokens.hash(token), LocalDateTime.now().plus(refreshTokenExpirationInMs, ChronoUnit.MILLIS));
+        return token;
     }
 }
@@ -0,0 +1,59 @@
+package com.employee.service;
+
+import com.employee.exception.BadRequestException;
+import org.bson.types.ObjectId;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * A (timestamp, id) position in the employee change history, shared by the
+ * delta-sync watermark and the change feed's resume token. Encoded as
+ * base64url of {@code epochMillis:id}.
+ */
+final class ChangeWatermark {
+    
+    private final LocalDateTime time;
+    
+    private final String id;
+    
+    ChangeWatermark(LocalDateTime time, String id) {
+        this.time = time;
+        this.id = id;
+    }
+    
+    LocalDateTime getTime() {
+        return time;
+    }
+    
+    String getId() {
+        return id;
+    }
+    
+    static String encode(LocalDateTime time, String id) {
+        String position = time.toInstant(ZoneOffset.UTC).toEpochMilli() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    static ChangeWatermark decode(String watermark) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(watermark), StandardCharsets.UTF_8);
+            String[] position = decoded.split(":", 2);
+            if (position.length != 2 || !position[0].matches("\\d{1,18}") || !ObjectId.isValid(position[1])) {
+                throw new BadRequestException("Invalid watermark");
+            }
+            LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong(position[0])),
+                    ZoneOffset.UTC);
+            return new ChangeWatermark(time, position[1]);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid watermark");
+        }
+    }
+    
+    String encode() {
+        return encode(time, id);
+    }
+}
@@ -0,0 +1,81 @@
+package com.employee.service;
+
+import com.employee.dto.EmployeeDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of employees by id. Concurrent misses for the same id
+ * share one load. Invalidating an id waits for an in-flight load of that id,
+ * so a load that read the document before a save cannot outlive the
+ * invalidation that follows the save. Writes made by other nodes are picked
+ * up after the TTL, or at once with {@code employee.cache.change-streams=true}.
+ * <p>
+ * Cached DTOs are shared between callers and must not be modified.
+ */
+@Component
+public class EmployeeCache {
+    
+    private static final Logger logger = LogManager.getLogger(EmployeeCache.class);
+    
+    @Value("${employee.cache.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${employee.cache.max-size:10000}")
+    private long maxSize;
+    
+    @Value("${employee.cache.ttl:60000}")
+    private long ttlInMs;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private Cache<String, EmployeeDTO> cache;
+    
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlInMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "employees");
+        logger.info("Employee cache {} (maxSize={}, ttl={}ms)", enabled ? "enabled" : "disabled", maxSize, ttlInMs);
+    }
+    
+    public EmployeeDTO get(String id, Function<String, EmployeeDTO> loader) {
+        return enabled ? cache.get(id, loader) : loader.apply(id);
+    }
+    
+    public void invalidate(String id) {
+        cache.invalidate(id);
+    }
+    
+    public void invalidateAll(Iterable<String> ids) {
+        cache.invalidateAll(ids);
+    }
+    
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+    
+    public CacheStats stats() {
+        return cache.stats();
+    }
+    
+    public long size() {
+        return cache.estimatedSize();
+    }
+}
@@ -0,0 +1,457 @@
+package com.employee.service;
+
+import com.employee.dto.EmployeeChangeEvent;
+import com.employee.exception.GoneException;
+import com.employee.exception.ServiceUnavailableException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Pushes employee changes to SSE and NDJSON subscribers. Emitters are async, so
+ * an idle subscriber holds no thread. Events are serialized once into a shared
+ * ring of {@code employee.feed.buffer-size} frames; each subscriber keeps its
+ * own cursor into it and a small shared pool sends what it has not seen yet, a
+ * bounded number of frames per turn. A subscriber lapped by the ring gets a
+ * RESYNC event and is closed, and reconnects with its last token. Sends are
+ * blocking servlet writes, so a subscriber whose send takes longer than
+ * {@code employee.feed.send-timeout} is evicted and the pool gets a stand-in
+ * thread until that write fails.
+ * <p>
+ * Events come from {@link EmployeeService} on this node, or from the MongoDB
+ * change streams with {@code employee.feed.change-streams=true}. Tokens are
+ * delta-sync watermarks, so a client can resume on any node: the gap is read
+ * from the updatedAt and deletedAt indexes on the request thread, up to
+ * {@code employee.feed.max-replay} changes, and sent before live events.
+ */
+@Component
+@Profile("!reactive")
+public class EmployeeChangeFeed {
+    
+    private static final Logger logger = LogManager.getLogger(EmployeeChangeFeed.class);
+    
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    
+    private static final int REPLAY_PAGE_SIZE = 500;
+    
+    // Frames one subscriber may send before yielding its pool thread to the others.
+    private static final int FRAMES_PER_TURN = 256;
+    
+    private static final Frame HEARTBEAT = new Frame(-1, null, null, null);
+    
+    @Autowired
+    private EmployeeService employeeService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${employee.feed.change-streams:false}")
+    private boolean changeStreams;
+    
+    @Value("${employee.feed.max-subscribers:10000}")
+    private int maxSubscribers;
+    
+    @Value("${employee.feed.buffer-size:1000}")
+    private int bufferSize;
+    
+    @Value("${employee.feed.threads:8}")
+    private int threads;
+    
+    @Value("${employee.feed.timeout:1800000}")
+    private long timeoutInMs;
+    
+    @Value("${employee.feed.max-replay:2000}")
+    private int maxReplay;
+    
+    @Value("${employee.feed.send-timeout:5000}")
+    private long sendTimeoutInMs;
+    
+    @Value("${employee.sync.settle-time:1000}")
+    private long syncSettleTimeInMs;
+    
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    
+    // Sequence of the next frame; frame n lives in slot n % buffer size until it is overwritten.
+    private final AtomicLong head = new AtomicLong();
+    
+    private final AtomicBoolean wakeScheduled = new AtomicBoolean();
+    
+    private AtomicReferenceArray<Frame> ring;
+    
+    private ThreadPoolExecutor executor;
+    
+    private Counter resyncCounter;
+    
+    private Counter evictedCounter;
+    
+    // Threads added to the pool in place of ones blocked in an evicted subscriber's send.
+    private int standInThreads;
+    
+    public enum Format {
+        SSE,
+        NDJSON
+    }
+    
+    @PostConstruct
+    public void init() {
+        ring = new AtomicReferenceArray<>(bufferSize);
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "employee-feed-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        new ExecutorServiceMetrics(executor, "employee.feed", Tags.empty()).bindTo(meterRegistry);
+        Gauge.builder("employee.feed.subscribers", subscribers, Set::size)
+                .description("Open employee change feed connections")
+                .register(meterRegistry);
+        resyncCounter = Counter.builder("employee.feed.resync")
+                .description("Subscribers closed because the ring lapped them")
+                .register(meterRegistry);
+        evictedCounter = Counter.builder("employee.feed.evicted")
+                .description("Subscribers closed because a send exceeded the send timeout")
+                .register(meterRegistry);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(Subscriber::close);
+        executor.shutdown();
+    }
+    
+    /**
+     * Opens a feed that first replays the changes after {@code token}, if one
+     * is given, and then follows live changes. The token is checked and the
+     * replay read before the response starts, so a bad or expired token, or
+     * one more than {@code employee.feed.max-replay} changes behind, fails
+     * with 400 or 410.
+     */
+    public ResponseBodyEmitter subscribe(Format format, String token) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new ServiceUnavailableException("Too many change feed subscribers, retry later");
+        }
+        ResponseBodyEmitter emitter = format == Format.SSE ? new SseEmitter(timeoutInMs)
+                : new ResponseBodyEmitter(timeoutInMs);
+        Subscriber subscriber = new Subscriber(emitter, format);
+        
+        // Registered before the replay is read, so nothing committed in between is missed.
+        subscribers.add(subscriber);
+        if (token != null && !token.isEmpty()) {
+            try {
+                subscriber.replayFrom(readReplay(token));
+            } catch (RuntimeException e) {
+                subscribers.remove(subscriber);
+                throw e;
+            }
+        }
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscriber.schedule();
+        logger.debug("Change feed subscriber added, {} open", subscribers.size());
+        return emitter;
+    }
+    
+    private List<EmployeeChangeEvent> readReplay(String token) {
+        List<EmployeeChangeEvent> events = new ArrayList<>();
+        List<EmployeeChangeEvent> page = employeeService.replayChanges(token, REPLAY_PAGE_SIZE);
+        while (true) {
+            events.addAll(page);
+            if (events.size() > maxReplay) {
+                throw new GoneException("More than " + maxReplay
+                        + " changes since the token; catch up with the delta sync before subscribing");
+            }
+            if (page.size() < REPLAY_PAGE_SIZE) {
+                return events;
+            }
+            page = employeeService.replayChanges(page.get(page.size() - 1).getToken(), REPLAY_PAGE_SIZE);
+        }
+    }
+    
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLocalChange(EmployeeChangeEvent event) {
+        if (!changeStreams) {
+            publish(event);
+        }
+    }
+    
+    /**
+     * Appends the event to the ring and wakes the subscribers on the feed pool,
+     * so the caller pays one serialization and one append however many
+     * subscribers there are.
+     */
+    public void publish(EmployeeChangeEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            logger.error("Could not serialize change event for employee {}: {}", event.getId(), e.getMessage());
+            return;
+        }
+        synchronized (head) {
+            long sequence = head.get();
+            ring.set((int) (sequence % bufferSize), new Frame(sequence, event.getToken(), event.getType().name(), json));
+            head.set(sequence + 1);
+        }
+        // Bursts of writes coalesce into one pass over the subscribers.
+        if (wakeScheduled.compareAndSet(false, true)) {
+            executor.execute(this::wakeSubscribers);
+        }
+    }
+    
+    private void wakeSubscribers() {
+        wakeScheduled.set(false);
+        long latest = head.get();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.cursor < latest) {
+                subscriber.schedule();
+            }
+        }
+    }
+    
+    // Keeps proxies from closing idle connections and finds clients that went away.
+    @Scheduled(fixedDelayString = "${employee.feed.heartbeat-interval:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeatDue = true;
+            subscriber.schedule();
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${employee.feed.stall-check-interval:1000}")
+    public void evictStalled() {
+        long now = System.nanoTime();
+        long timeout = TimeUnit.MILLISECONDS.toNanos(sendTimeoutInMs);
+        for (Subscriber subscriber : subscribers) {
+            long started = subscriber.sendStartedAt;
+            if (started != 0 && now - started > timeout) {
+                subscriber.evict();
+            }
+        }
+    }
+    
+    // Capped at the configured pool size again, so a wave of stalled clients cannot grow it without bound.
+    private boolean addStandInThread() {
+        synchronized (executor) {
+            if (standInThreads >= threads) {
+                return false;
+            }
+            standInThreads++;
+            executor.setMaximumPoolSize(threads + standInThreads);
+            executor.setCorePoolSize(threads + standInThreads);
+            return true;
+        }
+    }
+    
+    private void removeStandInThread() {
+        synchronized (executor) {
+            standInThreads--;
+            executor.setCorePoolSize(threads + standInThreads);
+            executor.setMaximumPoolSize(threads + standInThreads);
+        }
+    }
+    
+    private static final class Frame {
+        final long sequence;
+        final String token;
+        final String name;
+        final String json;
+        final String line;
+        
+        Frame(long sequence, String token, String name, String json) {
+            this.sequence = sequence;
+            this.token = token;
+            this.name = name;
+            this.json = json;
+            this.line = json != null ? json + "\n" : "\n";
+        }
+    }
+    
+    private final class Subscriber {
+        private final ResponseBodyEmitter emitter;
+        private final Format format;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final LocalDateTime subscribedAt = LocalDateTime.now();
+        private volatile long cursor = head.get();
+        private volatile boolean heartbeatDue;
+        private volatile boolean closed;
+        
+        // System.nanoTime() when the send in progress started, 0 between sends.
+        private volatile long sendStartedAt;
+        
+        // Guarded by this subscriber's monitor.
+        private boolean standIn;
+        
+        // Only touched by the drain, which never runs on two threads at once.
+        private List<EmployeeChangeEvent> replay = Collections.emptyList();
+        private int replayIndex;
+        private Set<String> replayed = Collections.emptySet();
+        
+        Subscriber(ResponseBodyEmitter emitter, Format format) {
+            this.emitter = emitter;
+            this.format = format;
+        }
+        
+        void replayFrom(List<EmployeeChangeEvent> events) {
+            this.replay = events;
+            this.replayed = new HashSet<>();
+        }
+        
+        void schedule() {
+            if (!closed && scheduled.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+        
+        private void drain() {
+            try {
+                int budget = FRAMES_PER_TURN;
+                // Live events buffered meanwhile can only repeat replayed changes from about the subscribe time on.
+                LocalDateTime recent = subscribedAt.minus(syncSettleTimeInMs, ChronoUnit.MILLIS);
+                while (!closed && budget > 0 && replayIndex < replay.size()) {
+                    EmployeeChangeEvent event = replay.get(replayIndex++);
+                    send(new Frame(-1, event.getToken(), event.getType().name(), objectMapper.writeValueAsString(event)));
+                    if (!ChangeWatermark.decode(event.getToken()).getTime().isBefore(recent)) {
+                        replayed.add(event.getToken());
+                    }
+                    budget--;
+                }
+                while (!closed && budget > 0 && replayIndex == replay.size() && cursor < head.get()) {
+                    Frame frame = ring.get((int) (cursor % bufferSize));
+                    if (frame == null || frame.sequence != cursor) {
+                        resync();
+                        return;
+                    }
+                    cursor++;
+                    // A live event already sent by the replay.
+                    if (!replayed.contains(frame.token)) {
+                        send(frame);
+                        budget--;
+                    }
+                }
+                if (heartbeatDue && !closed) {
+                    heartbeatDue = false;
+                    send(HEARTBEAT);
+                }
+            } catch (Exception e) {
+                logger.debug("Closing change feed subscriber: {}", e.getMessage());
+                close();
+            } finally {
+                scheduled.set(false);
+                if (closed) {
+                    complete();
+                } else if (replayIndex < replay.size() || cursor < head.get() || heartbeatDue) {
+                    schedule();
+                }
+            }
+        }
+        
+        private void resync() throws IOException {
+            resyncCounter.increment();
+            send(new Frame(-1, null, EmployeeChangeEvent.Type.RESYNC.name(), objectMapper.writeValueAsString(
+                    new EmployeeChangeEvent(EmployeeChangeEvent.Type.RESYNC, null, null, null))));
+            close();
+        }
+        
+        private void send(Frame frame) throws IOException {
+            sendStartedAt = System.nanoTime();
+            try {
+                if (format == Format.NDJSON) {
+                    emitter.send(frame.line, NDJSON);
+                } else if (frame.json == null) {
+                    ((SseEmitter) emitter).send(SseEmitter.event().comment("heartbeat"));
+                } else {
+                    SseEmitter.SseEventBuilder event = SseEmitter.event().name(frame.name).data(frame.json);
+                    ((SseEmitter) emitter).send(frame.token != null ? event.id(frame.token) : event);
+                }
+            } finally {
+                synchronized (this) {
+                    sendStartedAt = 0;
+                    if (standIn) {
+                        standIn = false;
+                        removeStandInThread();
+                    }
+                }
+            }
+        }
+        
+        /**
+         * Closes a subscriber whose send is taking too long. The blocked write
+         * keeps its thread until the servlet container's write timeout fails
+         * it, so a stand-in thread keeps the pool at full strength meanwhile.
+         */
+        void evict() {
+            synchronized (this) {
+                if (closed || sendStartedAt == 0) {
+                    return;
+                }
+                standIn = addStandInThread();
+            }
+            evictedCounter.increment();
+            logger.debug("Evicting change feed subscriber stalled in a send");
+            close();
+        }
+        
+        void close() {
+            closed = true;
+            subscribers.remove(this);
+            // A send in progress holds the emitter's lock; the drain completes it once the send returns.
+            if (sendStartedAt == 0) {
+                complete();
+            }
+        }
+        
+        private void complete() {
+            try {
+                emitter.complete();
+            } catch (Exception e) {
+                logger.debug("Change feed subscriber already closed: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.employee.service;
+
+import com.employee.model.Employee;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.messaging.ChangeStreamRequest;
+import org.springframework.data.mongodb.core.messaging.DefaultMessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.Message;
+import org.springframework.data.mongodb.core.messaging.MessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts employees changed by other nodes from {@link EmployeeCache} as soon
+ * as the change stream reports them. Requires MongoDB to run as a replica
+ * set, so it is only enabled with {@code employee.cache.change-streams=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "employee.cache.change-streams", havingValue = "true")
+public class EmployeeChangeStreamListener {
+    
+    private static final Logger logger = LogManager.getLogger(EmployeeChangeStreamListener.class);
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    @Autowired
+    private EmployeeCache employeeCache;
+    
+    private MessageListenerContainer container;
+    
+    @PostConstruct
+    public void start() {
+        container = new DefaultMessageListenerContainer(mongoTemplate);
+        ChangeStreamRequest<Document> request = ChangeStreamRequest.builder(this::onChange)
+                .collection(mongoTemplate.getCollectionName(Employee.class))
+                .build();
+        container.register(request, Document.class);
+        container.start();
+        logger.info("Listening for employee changes on the employees change stream");
+    }
+    
+    @PreDestroy
+    public void stop() {
+        if (container != null) {
+            container.stop();
+        }
+    }
+    
+    private void onChange(Message<ChangeStreamDocument<Document>, Document> message) {
+        ChangeStreamDocument<Document> raw = message.getRaw();
+        if (raw == null || raw.getOperationType() == OperationType.INSERT) {
+            return;
+        }
+        BsonValue id = raw.getDocumentKey() != null ? raw.getDocumentKey().get("_id") : null;
+        if (id == null) {
+            employeeCache.invalidateAll();
+        } else if (id.isObjectId()) {
+            employeeCache.invalidate(id.asObjectId().getValue().toHexString());
+        } else if (id.isString()) {
+            employeeCache.invalidate(id.asString().getValue());
+        } else {
+            employeeCache.invalidateAll();
+        }
+    }
+}
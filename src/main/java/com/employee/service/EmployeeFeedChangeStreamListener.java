@@ -0,0 +1,89 @@
+package com.employee.service;
+
+import com.employee.dto.EmployeeChangeEvent;
+import com.employee.model.Employee;
+import com.employee.model.EmployeeTombstone;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.messaging.ChangeStreamRequest;
+import org.springframework.data.mongodb.core.messaging.DefaultMessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.Message;
+import org.springframework.data.mongodb.core.messaging.MessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feeds {@link EmployeeChangeFeed} from the employees and employee_tombstones
+ * change streams, so subscribers on every node see writes made on any node.
+ * Deletes are taken from tombstone inserts, which carry the same deletedAt the
+ * delta-sync query orders by. Requires MongoDB to run as a replica set, so it
+ * is only enabled with {@code employee.feed.change-streams=true}.
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "employee.feed.change-streams", havingValue = "true")
+public class EmployeeFeedChangeStreamListener {
+    
+    private static final Logger logger = LogManager.getLogger(EmployeeFeedChangeStreamListener.class);
+    
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    @Autowired
+    private EmployeeChangeFeed changeFeed;
+    
+    private MessageListenerContainer container;
+    
+    @PostConstruct
+    public void start() {
+        container = new DefaultMessageListenerContainer(mongoTemplate);
+        container.register(ChangeStreamRequest.builder(this::onEmployeeChange)
+                .collection(mongoTemplate.getCollectionName(Employee.class))
+                .fullDocumentLookup(FullDocument.UPDATE_LOOKUP)
+                .build(), Employee.class);
+        container.register(ChangeStreamRequest.builder(this::onTombstone)
+                .collection(mongoTemplate.getCollectionName(EmployeeTombstone.class))
+                .build(), EmployeeTombstone.class);
+        container.start();
+        logger.info("Publishing employee changes from the employees change stream");
+    }
+    
+    @PreDestroy
+    public void stop() {
+        if (container != null) {
+            container.stop();
+        }
+    }
+    
+    private void onEmployeeChange(Message<ChangeStreamDocument<Document>, Employee> message) {
+        ChangeStreamDocument<Document> raw = message.getRaw();
+        Employee employee = message.getBody();
+        // Deletes arrive as tombstone inserts; an update whose document is gone by lookup time is followed by one.
+        if (raw == null || employee == null || raw.getOperationType() == OperationType.DELETE) {
+            return;
+        }
+        EmployeeChangeEvent.Type type = raw.getOperationType() == OperationType.INSERT
+                ? EmployeeChangeEvent.Type.CREATED : EmployeeChangeEvent.Type.UPDATED;
+        changeFeed.publish(EmployeeService.changeEvent(type, employee, EmployeeMapper.toDTO(employee)));
+    }
+    
+    private void onTombstone(Message<ChangeStreamDocument<Document>, EmployeeTombstone> message) {
+        ChangeStreamDocument<Document> raw = message.getRaw();
+        EmployeeTombstone tombstone = message.getBody();
+        // A repeated delete of a re-created id replaces its tombstone; TTL expiry deletes are not changes.
+        if (raw == null || tombstone == null
+                || (raw.getOperationType() != OperationType.INSERT && raw.getOperationType() != OperationType.REPLACE)) {
+            return;
+        }
+        changeFeed.publish(EmployeeService.deleteEvent(tombstone.getId(), tombstone.getDeletedAt()));
+    }
+}
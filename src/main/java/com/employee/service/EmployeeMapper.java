@@ -0,0 +1,35 @@
+package com.employee.service;
+
+import com.employee.dto.EmployeeDTO;
+import com.employee.model.Employee;
+
+public final class EmployeeMapper {
+    
+    private EmployeeMapper() {
+    }
+    
+    public static EmployeeDTO toDTO(Employee employee) {
+        EmployeeDTO dto = new EmployeeDTO();
+        dto.setId(employee.getId());
+        dto.setFirstName(employee.getFirstName());
+        dto.setLastName(employee.getLastName());
+        dto.setEmail(employee.getEmail());
+        dto.setDepartment(employee.getDepartment());
+        dto.setPosition(employee.getPosition());
+        dto.setSalary(employee.getSalary());
+        dto.setUpdatedAt(employee.getUpdatedAt());
+        dto.setVersion(employee.getVersion());
+        return dto;
+    }
+    
+    public static Employee toEntity(EmployeeDTO dto) {
+        Employee employee = new Employee();
+        employee.setFirstName(dto.getFirstName());
+        employee.setLastName(dto.getLastName());
+        employee.setEmail(dto.getEmail());
+        employee.setDepartment(dto.getDepartment());
+        employee.setPosition(dto.getPosition());
+        employee.setSalary(dto.getSalary());
+        return employee;
+    }
+}
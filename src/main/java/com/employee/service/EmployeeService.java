@@ -1,118 +1,694 @@
 package com.employee.service;
 
+import com.employee.dto.BulkItemResult;
+import com.employee.dto.CursorPage;
+import com.employee.dto.EmployeeChangeEvent;
+import com.employee.dto.EmployeeChanges;
 import com.employee.dto.EmployeeDTO;
+import com.employee.dto.EmployeePatch;
+import com.employee.dto.EmployeeSearchRequest;
 import com.employee.exception.BadRequestException;
+import com.employee.exception.GoneException;
+import com.employee.exception.PreconditionFailedException;
 import com.employee.exception.ResourceNotFoundException;
+import com.employee.model.CollectionVersion;
 import com.employee.model.Employee;
+import com.employee.model.EmployeeTombstone;
+import com.employee.repository.CollectionVersionRepository;
 import com.employee.repository.EmployeeRepository;
+import com.employee.repository.EmployeeTombstoneRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.bson.Document;
+import org.bson.json.JsonParseException;
+import org.bson.types.ObjectId;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class EmployeeService {
     
     private static final Logger logger = LogManager.getLogger(EmployeeService.class);
     
+    private static final Set<String> PROJECTABLE_FIELDS = Set.of(
+            "firstName", "lastName", "email", "department", "position", "salary");
+    
+    private static final Pattern NON_WORD = Pattern.compile("[^\\w\\s]");
+    
+    private static final String COLLECTION = "employees";
+    
     @Autowired
     private EmployeeRepository employeeRepository;
     
-    public List<EmployeeDTO> getAllEmployees() {
-        logger.info("Fetching all employees");
-        return employeeRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    @Autowired
+    private Validator validator;
+    
+    @Autowired
+    private EmployeeCache employeeCache;
+    
+    @Autowired
+    private CollectionVersionRepository collectionVersionRepository;
+    
+    @Autowired
+    private EmployeeTombstoneRepository tombstoneRepository;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${employee.page.max-size:1000}")
+    private int maxPageSize;
+    
+    @Value("${employee.bulk.chunk-size:1000}")
+    private int bulkChunkSize;
+    
+    @Value("${employee.sync.settle-time:1000}")
+    private long syncSettleTimeInMs;
+    
+    private Timer toDtoTimer;
+    
+    private Timer toEntityTimer;
+    
+    @PostConstruct
+    public void init() {
+        toDtoTimer = mappingTimer("to_dto");
+        toEntityTimer = mappingTimer("to_entity");
+    }
+    
+    private Timer mappingTimer(String direction) {
+        return Timer.builder("employee.mapping")
+                .description("Conversion between Employee documents and DTOs")
+                .tag("direction", direction)
+                .register(meterRegistry);
+    }
+    
+    public CursorPage<EmployeeDTO> getEmployeesPage(String cursor, int limit) {
+        logger.debug("Fetching employees page, limit: {}", limit);
+        
+        if (limit < 1 || limit > maxPageSize) {
+            throw new BadRequestException("Limit must be between 1 and " + maxPageSize);
+        }
+        
+        // One extra row tells us whether another page exists without a count query.
+        Pageable pageable = PageRequest.of(0, limit + 1, Sort.by(Sort.Direction.ASC, "id"));
+        List<Employee> employees = cursor == null || cursor.isEmpty()
+                ? employeeRepository.findAllBy(pageable)
+                : employeeRepository.findByIdGreaterThan(decodeCursor(cursor), pageable);
+        return toPage(employees, limit);
+    }
+    
+    public CursorPage<EmployeeDTO> searchEmployees(EmployeeSearchRequest request) {
+        logger.debug("Searching employees");
+        
+        int limit = request.getLimit() != null ? request.getLimit() : 100;
+        if (limit < 1 || limit > maxPageSize) {
+            throw new BadRequestException("Limit must be between 1 and " + maxPageSize);
+        }
+        if (request.getFields() != null && !PROJECTABLE_FIELDS.containsAll(request.getFields())) {
+            throw new BadRequestException("Fields must be any of " + PROJECTABLE_FIELDS);
+        }
+        if (request.getMinSalary() != null && request.getMaxSalary() != null
+                && request.getMinSalary() > request.getMaxSalary()) {
+            throw new BadRequestException("minSalary must not be greater than maxSalary");
+        }
+        
+        Criteria criteria = new Criteria();
+        if (hasText(request.getDepartment())) {
+            criteria.and("department").is(request.getDepartment());
+        }
+        if (hasText(request.getPosition())) {
+            criteria.and("position").is(request.getPosition());
+        }
+        if (request.getMinSalary() != null || request.getMaxSalary() != null) {
+            Criteria salary = criteria.and("salary");
+            if (request.getMinSalary() != null) {
+                salary.gte(request.getMinSalary());
+            }
+            if (request.getMaxSalary() != null) {
+                salary.lte(request.getMaxSalary());
+            }
+        }
+        if (hasText(request.getNamePrefix())) {
+            // Backslash-escaped rather than \Q...\E so MongoDB still sees a prefix it can bound on the index.
+            criteria.and("lastName").regex("^" + NON_WORD.matcher(request.getNamePrefix()).replaceAll("\\\\$0"));
+        }
+        
+        Employee after = hasText(request.getCursor()) ? decodeSearchCursor(request.getCursor()) : null;
+        List<Employee> employees = employeeRepository.search(
+                criteria, selectIndex(request), request.getFields(), after, limit + 1);
+        CursorPage<EmployeeDTO> page = toPage(employees, limit, this::encodeSearchCursor);
+        if (request.getFields() != null && !request.getFields().isEmpty()) {
+            // The index keys are read for the cursor; only the requested fields are returned.
+            for (EmployeeDTO item : page.getItems()) {
+                BeanWrapper dto = new BeanWrapperImpl(item);
+                PROJECTABLE_FIELDS.stream()
+                        .filter(field -> !request.getFields().contains(field))
+                        .forEach(field -> dto.setPropertyValue(field, null));
+            }
+        }
+        return page;
+    }
+    
+    // Only query shapes with an index prefix are accepted; anything else would be a collection scan.
+    private String selectIndex(EmployeeSearchRequest request) {
+        if (hasText(request.getDepartment())) {
+            return Employee.DEPARTMENT_INDEX;
+        }
+        if (hasText(request.getPosition())) {
+            return Employee.POSITION_INDEX;
+        }
+        if (hasText(request.getNamePrefix()) && request.getMinSalary() == null && request.getMaxSalary() == null) {
+            return Employee.NAME_INDEX;
+        }
+        throw new BadRequestException(
+                "Search must filter by department, position or namePrefix; salary ranges need department or position");
+    }
+    
+    private boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+    
+    /**
+     * A counter that moves on every create, update and delete made through this
+     * service, so list responses can be validated without reading any employee.
+     */
+    public long getCollectionVersion() {
+        return collectionVersionRepository.findById(COLLECTION)
+                .map(CollectionVersion::getVersion)
+                .orElse(0L);
+    }
+    
+    /**
+     * Employees created, updated or deleted after the watermark, oldest first,
+     * read from the updatedAt and deletedAt indexes so the cost follows the
+     * number of changes. Changes younger than the settle time are left for the
+     * next call: a write stamped just before now may still be in flight, and a
+     * watermark that moved past it would skip it for good.
+     */
+    public EmployeeChanges getChanges(String watermark, int limit) {
+        logger.debug("Fetching employee changes, limit: {}", limit);
+        
+        if (limit < 1 || limit > maxPageSize) {
+            throw new BadRequestException("Limit must be between 1 and " + maxPageSize);
+        }
+        
+        LocalDateTime now = now();
+        ChangeWatermark position = decodeWatermark(watermark, now);
+        List<EmployeeChangeEvent> events = readChanges(position, now.minus(syncSettleTimeInMs, ChronoUnit.MILLIS),
+                limit + 1);
+        boolean hasMore = events.size() > limit;
+        if (hasMore) {
+            events = events.subList(0, limit);
+        }
+        List<EmployeeDTO> changed = new ArrayList<>();
+        List<String> deleted = new ArrayList<>();
+        for (EmployeeChangeEvent event : events) {
+            if (event.getType() == EmployeeChangeEvent.Type.DELETED) {
+                deleted.add(event.getId());
+            } else {
+                changed.add(event.getEmployee());
+            }
+        }
+        String next = !events.isEmpty() ? events.get(events.size() - 1).getToken()
+                : position != null ? position.encode() : null;
+        return new EmployeeChanges(changed, deleted, next, hasMore);
+    }
+    
+    /**
+     * Changes after the token with no settle time, for a feed that subscribed
+     * to live events before reading: a write still in flight reaches it live.
+     */
+    public List<EmployeeChangeEvent> replayChanges(String token, int limit) {
+        LocalDateTime now = now();
+        return readChanges(decodeWatermark(token, now), now, limit);
+    }
+    
+    // Both sources are read up to the limit and merged in (timestamp, id) order.
+    private List<EmployeeChangeEvent> readChanges(ChangeWatermark position, LocalDateTime until, int limit) {
+        LocalDateTime since = position != null ? position.getTime() : null;
+        String afterId = position != null ? position.getId() : null;
+        List<Employee> changed = employeeRepository.findChangedSince(since, afterId, until, limit);
+        List<EmployeeTombstone> deleted = tombstoneRepository.findDeletedSince(since, afterId, until, limit);
+        List<EmployeeChangeEvent> events = new ArrayList<>(Math.min(limit, changed.size() + deleted.size()));
+        int c = 0;
+        int d = 0;
+        while (events.size() < limit && (c < changed.size() || d < deleted.size())) {
+            boolean takeChanged = d == deleted.size() || (c < changed.size()
+                    && comparePositions(changed.get(c).getUpdatedAt(), changed.get(c).getId(),
+                            deleted.get(d).getDeletedAt(), deleted.get(d).getId()) <= 0);
+            if (takeChanged) {
+                Employee employee = changed.get(c++);
+                EmployeeChangeEvent.Type type = employee.getUpdatedAt().equals(employee.getCreatedAt())
+                        ? EmployeeChangeEvent.Type.CREATED : EmployeeChangeEvent.Type.UPDATED;
+                events.add(changeEvent(type, employee, toDTO(employee)));
+            } else {
+                EmployeeTombstone tombstone = deleted.get(d++);
+                events.add(deleteEvent(tombstone.getId(), tombstone.getDeletedAt()));
+            }
+        }
+        return events;
+    }
+    
+    private ChangeWatermark decodeWatermark(String watermark, LocalDateTime now) {
+        if (watermark == null || watermark.isEmpty()) {
+            return null;
+        }
+        ChangeWatermark position = ChangeWatermark.decode(watermark);
+        if (position.getTime().isBefore(now.minusDays(EmployeeTombstone.RETENTION_DAYS))) {
+            throw new GoneException("Watermark is older than the retained deletions, run a full sync");
+        }
+        return position;
+    }
+    
+    private static int comparePositions(LocalDateTime time, String id, LocalDateTime otherTime, String otherId) {
+        int byTime = time.compareTo(otherTime);
+        return byTime != 0 ? byTime : id.compareTo(otherId);
+    }
+    
+    static EmployeeChangeEvent changeEvent(EmployeeChangeEvent.Type type, Employee employee, EmployeeDTO dto) {
+        return new EmployeeChangeEvent(type, employee.getId(), dto,
+                ChangeWatermark.encode(employee.getUpdatedAt(), employee.getId()));
+    }
+    
+    static EmployeeChangeEvent deleteEvent(String id, LocalDateTime deletedAt) {
+        return new EmployeeChangeEvent(EmployeeChangeEvent.Type.DELETED, id, null,
+                ChangeWatermark.encode(deletedAt, id));
+    }
+    
+    public Stream<EmployeeDTO> streamAllEmployees() {
+        logger.debug("Streaming all employees");
+        return employeeRepository.streamAllBy().map(this::toDTO);
     }
     
     public EmployeeDTO getEmployeeById(String id) {
-        logger.info("Fetching employee with id: {}", id);
+        logger.debug("Fetching employee with id: {}", id);
+        return employeeCache.get(id, this::loadEmployee);
+    }
+    
+    private EmployeeDTO loadEmployee(String id) {
         Employee employee = employeeRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Employee not found with id: " + id));
-        return convertToDTO(employee);
+        return toDTO(employee);
     }
     
     @Transactional
     public EmployeeDTO createEmployee(EmployeeDTO employeeDTO) {
-        logger.info("Creating new employee: {}", employeeDTO.getEmail());
-        
-        if (employeeRepository.existsByEmail(employeeDTO.getEmail())) {
-            throw new BadRequestException("Email already exists");
-        }
+        logger.debug("Creating new employee: {}", employeeDTO.getEmail());
         
-        Employee employee = convertToEntity(employeeDTO);
-        employee.setCreatedAt(LocalDateTime.now());
-        employee.setUpdatedAt(LocalDateTime.now());
+        Employee employee = toEntity(employeeDTO);
+        LocalDateTime now = now();
+        employee.setCreatedAt(now);
+        employee.setUpdatedAt(now);
+        employee.setVersion(0L);
         
-        employee = employeeRepository.save(employee);
+        employee = saveUniqueEmail(employee);
+        collectionVersionRepository.increment(COLLECTION);
         logger.info("Employee created successfully with id: {}", employee.getId());
         
-        return convertToDTO(employee);
+        EmployeeDTO created = toDTO(employee);
+        eventPublisher.publishEvent(changeEvent(EmployeeChangeEvent.Type.CREATED, employee, created));
+        return created;
     }
     
     @Transactional
     public EmployeeDTO updateEmployee(String id, EmployeeDTO employeeDTO) {
-        logger.info("Updating employee with id: {}", id);
+        return updateEmployee(id, employeeDTO, null);
+    }
+    
+    /**
+     * Updates the employee, or fails with {@link PreconditionFailedException} if
+     * {@code expectedVersion} is given and no longer matches. The check, the write
+     * and the version increment are one findAndModify, so concurrent writers
+     * cannot both win.
+     */
+    @Transactional
+    public EmployeeDTO updateEmployee(String id, EmployeeDTO employeeDTO, Long expectedVersion) {
+        logger.debug("Updating employee with id: {}", id);
         
-        Employee employee = employeeRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Employee not found with id: " + id));
+        Update update = new Update()
+                .set("firstName", employeeDTO.getFirstName())
+                .set("lastName", employeeDTO.getLastName())
+                .set("email", employeeDTO.getEmail())
+                .set("department", employeeDTO.getDepartment())
+                .set("position", employeeDTO.getPosition())
+                .set("salary", employeeDTO.getSalary())
+                .set("updatedAt", now());
+        Employee employee = updateUniqueEmail(id, update, expectedVersion);
+        logger.info("Employee updated successfully with id: {}", employee.getId());
         
-        if (!employee.getEmail().equals(employeeDTO.getEmail()) && 
-            employeeRepository.existsByEmail(employeeDTO.getEmail())) {
-            throw new BadRequestException("Email already exists");
+        employeeCache.invalidate(id);
+        collectionVersionRepository.increment(COLLECTION);
+        
+        EmployeeDTO updated = toDTO(employee);
+        eventPublisher.publishEvent(changeEvent(EmployeeChangeEvent.Type.UPDATED, employee, updated));
+        return updated;
+    }
+    
+    /**
+     * Sets only the fields present in the patch, plus updatedAt and the version,
+     * with a single findAndModify that returns the new document. There is no read first: the
+     * If-Match check is part of the query and email uniqueness is left to the
+     * unique index, so a missing employee or a stale version is only told
+     * apart after nothing matched.
+     */
+    @Transactional
+    public EmployeeDTO patchEmployee(String id, EmployeePatch patch, Long expectedVersion) {
+        logger.debug("Patching employee with id: {}", id);
+        
+        Update update = new Update();
+        setIfPresent(update, "firstName", patch.getFirstName());
+        setIfPresent(update, "lastName", patch.getLastName());
+        setIfPresent(update, "email", patch.getEmail());
+        setIfPresent(update, "department", patch.getDepartment());
+        setIfPresent(update, "position", patch.getPosition());
+        setIfPresent(update, "salary", patch.getSalary());
+        if (update.getUpdateObject().isEmpty()) {
+            throw new BadRequestException("No fields to update");
         }
+        update.set("updatedAt", now());
         
-        employee.setFirstName(employeeDTO.getFirstName());
-        employee.setLastName(employeeDTO.getLastName());
-        employee.setEmail(employeeDTO.getEmail());
-        employee.setDepartment(employeeDTO.getDepartment());
-        employee.setPosition(employeeDTO.getPosition());
-        employee.setSalary(employeeDTO.getSalary());
-        employee.setUpdatedAt(LocalDateTime.now());
+        Employee employee = updateUniqueEmail(id, update, expectedVersion);
+        logger.info("Employee patched successfully with id: {}", id);
         
-        employee = employeeRepository.save(employee);
-        logger.info("Employee updated successfully with id: {}", employee.getId());
+        employeeCache.invalidate(id);
+        collectionVersionRepository.increment(COLLECTION);
         
-        return convertToDTO(employee);
+        EmployeeDTO patched = toDTO(employee);
+        eventPublisher.publishEvent(changeEvent(EmployeeChangeEvent.Type.UPDATED, employee, patched));
+        return patched;
+    }
+    
+    private static void setIfPresent(Update update, String field, Object value) {
+        if (value != null) {
+            update.set(field, value);
+        }
+    }
+    
+    public void saveEmployees(Iterator<EmployeeDTO> employees, Consumer<BulkItemResult> results) {
+        logger.debug("Bulk saving employees in chunks of {}", bulkChunkSize);
+        List<EmployeeDTO> chunk = new ArrayList<>(bulkChunkSize);
+        long offset = 0;
+        while (employees.hasNext()) {
+            chunk.add(employees.next());
+            if (chunk.size() == bulkChunkSize || !employees.hasNext()) {
+                saveChunk(offset, chunk, results);
+                offset += chunk.size();
+                chunk.clear();
+            }
+        }
+        logger.info("Bulk save processed {} employees", offset);
+    }
+    
+    public void deleteEmployees(Iterator<String> ids, Consumer<BulkItemResult> results) {
+        logger.debug("Bulk deleting employees in chunks of {}", bulkChunkSize);
+        List<String> chunk = new ArrayList<>(bulkChunkSize);
+        long offset = 0;
+        while (ids.hasNext()) {
+            chunk.add(ids.next());
+            if (chunk.size() == bulkChunkSize || !ids.hasNext()) {
+                Set<String> existing = employeeRepository.findExistingIds(chunk);
+                LocalDateTime now = now();
+                // Tombstones first: a crash in between leaves extra tombstones, never an unrecorded delete.
+                tombstoneRepository.saveAll(existing.stream()
+                        .map(id -> new EmployeeTombstone(id, now))
+                        .collect(Collectors.toList()));
+                employeeRepository.deleteByIdIn(existing);
+                employeeCache.invalidateAll(existing);
+                if (!existing.isEmpty()) {
+                    collectionVersionRepository.increment(COLLECTION);
+                }
+                existing.forEach(id -> eventPublisher.publishEvent(deleteEvent(id, now)));
+                for (int i = 0; i < chunk.size(); i++) {
+                    String id = chunk.get(i);
+                    results.accept(existing.contains(id)
+                            ? new BulkItemResult(offset + i, id, BulkItemResult.Status.DELETED, null)
+                            : new BulkItemResult(offset + i, id, BulkItemResult.Status.FAILED,
+                                    "Employee not found with id: " + id));
+                }
+                offset += chunk.size();
+                chunk.clear();
+            }
+        }
+        logger.info("Bulk delete processed {} ids", offset);
+    }
+    
+    private void saveChunk(long offset, List<EmployeeDTO> chunk, Consumer<BulkItemResult> results) {
+        BulkItemResult[] outcomes = new BulkItemResult[chunk.size()];
+        Set<String> emails = new HashSet<>();
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            EmployeeDTO dto = chunk.get(i);
+            Set<ConstraintViolation<EmployeeDTO>> violations = validator.validate(dto);
+            if (!violations.isEmpty()) {
+                outcomes[i] = failed(offset + i, dto.getId(), violations.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .collect(Collectors.joining(", ")));
+                continue;
+            }
+            emails.add(dto.getEmail());
+            if (dto.getId() != null) {
+                ids.add(dto.getId());
+            }
+        }
+        
+        // One $in query per chunk replaces an existsByEmail round-trip per employee.
+        Map<String, String> emailOwners = emails.isEmpty()
+                ? Collections.emptyMap() : employeeRepository.findIdsByEmail(emails);
+        Map<String, LocalDateTime> createdAt = ids.isEmpty()
+                ? Collections.emptyMap() : employeeRepository.findCreatedAt(ids);
+        
+        LocalDateTime now = now();
+        Set<String> seenEmails = new HashSet<>();
+        List<Employee> writes = new ArrayList<>();
+        List<Integer> writePositions = new ArrayList<>();
+        Set<String> newIds = new HashSet<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            if (outcomes[i] != null) {
+                continue;
+            }
+            EmployeeDTO dto = chunk.get(i);
+            boolean create = dto.getId() == null;
+            String owner = emailOwners.get(dto.getEmail());
+            if (!create && !createdAt.containsKey(dto.getId())) {
+                outcomes[i] = failed(offset + i, dto.getId(), "Employee not found with id: " + dto.getId());
+            } else if (!seenEmails.add(dto.getEmail())) {
+                outcomes[i] = failed(offset + i, dto.getId(), "Email appears more than once in the batch");
+            } else if (owner != null && (create || !owner.equals(dto.getId()))) {
+                outcomes[i] = failed(offset + i, dto.getId(), "Email already exists");
+            } else {
+                Employee employee = toEntity(dto);
+                employee.setId(create ? new ObjectId().toHexString() : dto.getId());
+                // Updates keep their original createdAt: delta sync reports a change as CREATED when updatedAt equals it.
+                employee.setCreatedAt(create ? now : createdAt.get(dto.getId()));
+                employee.setUpdatedAt(now);
+                if (create) {
+                    employee.setVersion(0L);
+                    newIds.add(employee.getId());
+                }
+                writes.add(employee);
+                writePositions.add(i);
+                outcomes[i] = new BulkItemResult(offset + i, employee.getId(),
+                        create ? BulkItemResult.Status.CREATED : BulkItemResult.Status.UPDATED, null);
+            }
+        }
+        
+        Map<Integer, String> failures = employeeRepository.bulkSave(writes, newIds);
+        employeeCache.invalidateAll(writes.stream().map(Employee::getId).collect(Collectors.toList()));
+        if (failures.size() < writes.size()) {
+            collectionVersionRepository.increment(COLLECTION);
+        }
+        failures.forEach((position, message) -> {
+            BulkItemResult outcome = outcomes[writePositions.get(position)];
+            outcome.setStatus(BulkItemResult.Status.FAILED);
+            outcome.setMessage(message);
+        });
+        for (int w = 0; w < writes.size(); w++) {
+            BulkItemResult outcome = outcomes[writePositions.get(w)];
+            if (outcome.getStatus() != BulkItemResult.Status.FAILED) {
+                Employee employee = writes.get(w);
+                eventPublisher.publishEvent(changeEvent(outcome.getStatus() == BulkItemResult.Status.CREATED
+                        ? EmployeeChangeEvent.Type.CREATED : EmployeeChangeEvent.Type.UPDATED,
+                        employee, toDTO(employee)));
+            }
+        }
+        
+        for (BulkItemResult outcome : outcomes) {
+            results.accept(outcome);
+        }
+    }
+    
+    // The unique index on email is the uniqueness check: no extra round-trip and no race between check and write.
+    private Employee saveUniqueEmail(Employee employee) {
+        try {
+            return employeeRepository.save(employee);
+        } catch (DuplicateKeyException e) {
+            throw new BadRequestException("Email already exists");
+        }
+    }
+    
+    private Employee updateUniqueEmail(String id, Update update, Long expectedVersion) {
+        Employee employee;
+        try {
+            employee = employeeRepository.updateIfUnchanged(id, update, expectedVersion);
+        } catch (DuplicateKeyException e) {
+            throw new BadRequestException("Email already exists");
+        }
+        if (employee == null) {
+            // Nothing matched: tell a concurrent modification apart from a missing employee.
+            if (expectedVersion != null && employeeRepository.existsById(id)) {
+                throw new PreconditionFailedException("Employee has been modified since it was read");
+            }
+            throw new ResourceNotFoundException("Employee not found with id: " + id);
+        }
+        return employee;
+    }
+    
+    // MongoDB stores milliseconds; truncating here keeps returned values equal to what a later read sees.
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+    }
+    
+    private BulkItemResult failed(long index, String id, String message) {
+        return new BulkItemResult(index, id, BulkItemResult.Status.FAILED, message);
     }
     
     @Transactional
     public void deleteEmployee(String id) {
-        logger.info("Deleting employee with id: {}", id);
+        deleteEmployee(id, null);
+    }
+    
+    @Transactional
+    public void deleteEmployee(String id, Long expectedVersion) {
+        logger.debug("Deleting employee with id: {}", id);
         
-        if (!employeeRepository.existsById(id)) {
+        // The tombstone is written first, so a crash before the delete leaves an extra
+        // tombstone rather than a delete that delta sync never reports.
+        EmployeeTombstone tombstone = tombstoneRepository.save(new EmployeeTombstone(id, now()));
+        if (employeeRepository.deleteIfUnchanged(id, expectedVersion) == 0) {
+            // Nothing matched: tell a concurrent modification apart from a missing employee.
+            if (expectedVersion != null && employeeRepository.existsById(id)) {
+                // Deleted ids are never reused, so this tombstone is the only one for the id.
+                tombstoneRepository.deleteById(id);
+                throw new PreconditionFailedException("Employee has been modified since it was read");
+            }
             throw new ResourceNotFoundException("Employee not found with id: " + id);
         }
         
-        employeeRepository.deleteById(id);
+        employeeCache.invalidate(id);
+        collectionVersionRepository.increment(COLLECTION);
+        eventPublisher.publishEvent(deleteEvent(id, tombstone.getDeletedAt()));
         logger.info("Employee deleted successfully with id: {}", id);
     }
     
-    private EmployeeDTO convertToDTO(Employee employee) {
-        EmployeeDTO dto = new EmployeeDTO();
-        dto.setId(employee.getId());
-        dto.setFirstName(employee.getFirstName());
-        dto.setLastName(employee.getLastName());
-        dto.setEmail(employee.getEmail());
-        dto.setDepartment(employee.getDepartment());
-        dto.setPosition(employee.getPosition());
-        dto.setSalary(employee.getSalary());
+    private CursorPage<EmployeeDTO> toPage(List<Employee> employees, int limit) {
+        return toPage(employees, limit, employee -> encodeCursor(employee.getId()));
+    }
+    
+    private CursorPage<EmployeeDTO> toPage(List<Employee> employees, int limit, Function<Employee, String> cursorOf) {
+        boolean hasMore = employees.size() > limit;
+        if (hasMore) {
+            employees = employees.subList(0, limit);
+        }
+        List<EmployeeDTO> items = employees.stream()
+                .map(this::toDTO)
+                .collect(Collectors.toList());
+        String nextCursor = hasMore ? cursorOf.apply(employees.get(employees.size() - 1)) : null;
+        return new CursorPage<>(items, nextCursor, limit);
+    }
+    
+    private EmployeeDTO toDTO(Employee employee) {
+        long start = System.nanoTime();
+        EmployeeDTO dto = EmployeeMapper.toDTO(employee);
+        toDtoTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         return dto;
     }
     
-    private Employee convertToEntity(EmployeeDTO dto) {
-        Employee employee = new Employee();
-        employee.setFirstName(dto.getFirstName());
-        employee.setLastName(dto.getLastName());
-        employee.setEmail(dto.getEmail());
-        employee.setDepartment(dto.getDepartment());
-        employee.setPosition(dto.getPosition());
-        employee.setSalary(dto.getSalary());
+    private Employee toEntity(EmployeeDTO dto) {
+        long start = System.nanoTime();
+        Employee employee = EmployeeMapper.toEntity(dto);
+        toEntityTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         return employee;
     }
+    
+    private String encodeCursor(String id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    // A search cursor carries the last row's index keys as well as its id, as JSON.
+    private String encodeSearchCursor(Employee employee) {
+        Document position = new Document("id", employee.getId())
+                .append("department", employee.getDepartment())
+                .append("position", employee.getPosition())
+                .append("salary", employee.getSalary())
+                .append("lastName", employee.getLastName())
+                .append("firstName", employee.getFirstName());
+        return encodeCursor(position.toJson());
+    }
+    
+    private Employee decodeSearchCursor(String cursor) {
+        try {
+            Document position = Document.parse(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+            Employee after = new Employee();
+            after.setId(position.getString("id"));
+            after.setDepartment(position.getString("department"));
+            after.setPosition(position.getString("position"));
+            after.setSalary(position.get("salary") instanceof Number salary ? salary.doubleValue() : null);
+            after.setLastName(position.getString("lastName"));
+            after.setFirstName(position.getString("firstName"));
+            if (after.getId() == null || !ObjectId.isValid(after.getId())) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            return after;
+        } catch (IllegalArgumentException | ClassCastException | JsonParseException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+    
+    private String decodeCursor(String cursor) {
+        try {
+            String id = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!ObjectId.isValid(id)) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            return id;
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
 }
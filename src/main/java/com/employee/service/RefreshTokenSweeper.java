@@ -0,0 +1,95 @@
+package com.employee.service;
+
+import com.employee.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Removes expired refresh tokens in bounded batches. MongoDB expires them on its own
+ * through the TTL index on expiryDate; this sweeper is for backends that do not
+ * honour TTL indexes and is enabled with {@code jwt.refresh.sweeper.enabled=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "jwt.refresh.sweeper.enabled", havingValue = "true")
+public class RefreshTokenSweeper {
+    
+    private static final Logger logger = LogManager.getLogger(RefreshTokenSweeper.class);
+    
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${jwt.refresh.sweeper.batch-size:1000}")
+    private int batchSize;
+    
+    @Value("${jwt.refresh.sweeper.max-batches:100}")
+    private int maxBatches;
+    
+    private final AtomicLong deletedTotal = new AtomicLong();
+    
+    private final AtomicLong runs = new AtomicLong();
+    
+    private volatile long lastRunDurationInMs;
+    
+    @PostConstruct
+    public void init() {
+        FunctionCounter.builder("jwt.refresh.sweeper.deleted", this, RefreshTokenSweeper::getDeletedTotal)
+                .description("Expired refresh tokens removed by the sweeper")
+                .register(meterRegistry);
+        FunctionCounter.builder("jwt.refresh.sweeper.runs", this, RefreshTokenSweeper::getRuns)
+                .register(meterRegistry);
+        Gauge.builder("jwt.refresh.sweeper.last.duration", this, RefreshTokenSweeper::getLastRunDurationInMs)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+    
+    @Scheduled(fixedDelayString = "${jwt.refresh.sweeper.interval:60000}")
+    public void sweep() {
+        long start = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+        long deleted = 0;
+        try {
+            for (int batch = 0; batch < maxBatches; batch++) {
+                long count = refreshTokenRepository.deleteExpired(now, batchSize);
+                deleted += count;
+                if (count < batchSize) {
+                    break;
+                }
+            }
+        } catch (Exception ex) {
+            logger.warn("Refresh token sweep failed: {}", ex.getMessage());
+        }
+        deletedTotal.addAndGet(deleted);
+        runs.incrementAndGet();
+        lastRunDurationInMs = System.currentTimeMillis() - start;
+        if (deleted > 0) {
+            logger.info("Swept {} expired refresh tokens in {} ms", deleted, lastRunDurationInMs);
+        }
+    }
+    
+    public long getDeletedTotal() {
+        return deletedTotal.get();
+    }
+    
+    public long getRuns() {
+        return runs.get();
+    }
+    
+    public long getLastRunDurationInMs() {
+        return lastRunDurationInMs;
+    }
+}
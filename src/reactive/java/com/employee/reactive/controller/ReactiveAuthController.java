@@ -0,0 +1,68 @@
+package com.employee.reactive.controller;
+
+import com.employee.dto.AuthRequest;
+import com.employee.dto.AuthResponse;
+import com.employee.dto.LoginRequest;
+import com.employee.dto.RefreshTokenRequest;
+import com.employee.dto.StandardResponse;
+import com.employee.exception.UnauthorizedException;
+import com.employee.reactive.service.ReactiveAuthService;
+import jakarta.validation.Valid;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/auth")
+public class ReactiveAuthController {
+    
+    private static final Logger logger = LogManager.getLogger(ReactiveAuthController.class);
+    
+    @Autowired
+    private ReactiveAuthService authService;
+    
+    @PostMapping("/register")
+    public Mono<ResponseEntity<StandardResponse<AuthResponse>>> register(@Valid @RequestBody AuthRequest request) {
+        logger.debug("Registration request received for username: {}", request.getUsername());
+        return authService.register(request)
+                .map(response -> ResponseEntity.status(HttpStatus.CREATED)
+                        .body(StandardResponse.success("User registered successfully", response)));
+    }
+    
+    @PostMapping("/login")
+    public Mono<ResponseEntity<StandardResponse<AuthResponse>>> login(@Valid @RequestBody LoginRequest request) {
+        logger.debug("Login request received for username: {}", request.getUsername());
+        return authService.login(request)
+                .map(response -> ResponseEntity.ok(StandardResponse.success("Login successful", response)));
+    }
+    
+    @PostMapping("/refresh")
+    public Mono<ResponseEntity<StandardResponse<AuthResponse>>> refreshToken(
+            @Valid @RequestBody RefreshTokenRequest request) {
+        logger.debug("Refresh token request received");
+        return authService.refreshToken(request)
+                .map(response -> ResponseEntity.ok(StandardResponse.success("Token refreshed successfully", response)));
+    }
+    
+    @PostMapping("/logout")
+    public Mono<ResponseEntity<StandardResponse<Void>>> logout(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        logger.debug("Logout request received");
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            return Mono.error(new UnauthorizedException("Access token is required"));
+        }
+        return authService.logout(authorization.substring(7))
+                .thenReturn(ResponseEntity.ok(StandardResponse.<Void>success("Logged out successfully", null)));
+    }
+}
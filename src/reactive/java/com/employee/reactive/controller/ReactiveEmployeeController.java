@@ -0,0 +1,80 @@
+package com.employee.reactive.controller;
+
+import com.employee.dto.EmployeeDTO;
+import com.employee.dto.StandardResponse;
+import com.employee.reactive.service.ReactiveEmployeeService;
+import jakarta.validation.Valid;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/employees")
+public class ReactiveEmployeeController {
+    
+    private static final Logger logger = LogManager.getLogger(ReactiveEmployeeController.class);
+    
+    @Autowired
+    private ReactiveEmployeeService employeeService;
+    
+    /**
+     * Streams employees as a JSON array, or as NDJSON when the client asks for
+     * application/x-ndjson. Page with {@code after} (the last id seen) and {@code limit}.
+     */
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<EmployeeDTO> getAllEmployees(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        logger.debug("Streaming employees");
+        return employeeService.getEmployees(after, limit);
+    }
+    
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<StandardResponse<EmployeeDTO>>> getEmployeeById(@PathVariable String id) {
+        return employeeService.getEmployeeById(id)
+                .map(employee -> ResponseEntity.ok(StandardResponse.success(employee)));
+    }
+    
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public Mono<ResponseEntity<StandardResponse<EmployeeDTO>>> createEmployee(
+            @Valid @RequestBody EmployeeDTO employeeDTO) {
+        logger.debug("Creating new employee");
+        return employeeService.createEmployee(employeeDTO)
+                .map(created -> ResponseEntity.status(HttpStatus.CREATED)
+                        .body(StandardResponse.success("Employee created successfully", created)));
+    }
+    
+    @PutMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Mono<ResponseEntity<StandardResponse<EmployeeDTO>>> updateEmployee(
+            @PathVariable String id,
+            @Valid @RequestBody EmployeeDTO employeeDTO) {
+        return employeeService.updateEmployee(id, employeeDTO)
+                .map(updated -> ResponseEntity.ok(StandardResponse.success("Employee updated successfully", updated)));
+    }
+    
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Mono<ResponseEntity<StandardResponse<Void>>> deleteEmployee(@PathVariable String id) {
+        return employeeService.deleteEmployee(id)
+                .thenReturn(ResponseEntity.ok(StandardResponse.<Void>success("Employee deleted successfully", null)));
+    }
+}
@@ -0,0 +1,48 @@
+package com.employee.reactive.exception;
+
+import com.employee.dto.StandardResponse;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * WebFlux reports @Valid failures as WebExchangeBindException rather than
+ * MethodArgumentNotValidException. Ordered ahead of GlobalExceptionHandler,
+ * whose catch-all would otherwise turn them into 500s.
+ */
+@RestControllerAdvice
+@Profile("reactive")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ReactiveExceptionHandler {
+    
+    private static final Logger logger = LogManager.getLogger(ReactiveExceptionHandler.class);
+    
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<StandardResponse<Map<String, String>>> handleValidationExceptions(
+            WebExchangeBindException ex) {
+        logger.warn("Validation error: {}", ex.getMessage());
+        Map<String, String> errors = new HashMap<>();
+        ex.getBindingResult().getAllErrors().forEach((error) -> {
+            String fieldName = ((FieldError) error).getField();
+            String errorMessage = error.getDefaultMessage();
+            errors.put(fieldName, errorMessage);
+        });
+        StandardResponse<Map<String, String>> response = new StandardResponse<>();
+        response.setSuccess(false);
+        response.setMessage("Validation failed");
+        response.setData(errors);
+        response.setTimestamp(java.time.LocalDateTime.now());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    }
+}
@@ -0,0 +1,13 @@
+package com.employee.reactive.repository;
+
+import com.employee.model.Employee;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface ReactiveEmployeeRepository extends ReactiveMongoRepository<Employee, String> {
+    Flux<Employee> findAllBy(Pageable pageable);
+    Flux<Employee> findByIdGreaterThan(String id, Pageable pageable);
+}
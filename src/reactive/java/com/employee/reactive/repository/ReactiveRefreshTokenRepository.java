@@ -0,0 +1,13 @@
+package com.employee.reactive.repository;
+
+import com.employee.model.RefreshToken;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ReactiveRefreshTokenRepository extends ReactiveMongoRepository<RefreshToken, String> {
+    Mono<RefreshToken> findByTokenHash(String tokenHash);
+    Mono<RefreshToken> findByPreviousTokenHash(String previousTokenHash);
+    Mono<Void> deleteByUserId(String userId);
+}
@@ -0,0 +1,83 @@
+package com.employee.reactive.security;
+
+import com.employee.reactive.repository.ReactiveUserRepository;
+import com.employee.security.AuthenticatedUser;
+import com.employee.security.CredentialChangeRegistry;
+import com.employee.security.JwtTokenProvider;
+import com.employee.security.TokenRevocationList;
+import com.employee.security.VerifiedToken;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+
+/**
+ * Reactive counterpart of JwtAuthenticationFilter: verifies the bearer token
+ * with the shared JwtTokenProvider and applies the same revocation checks.
+ * Outside stateless mode the user is read through the reactive repository, so
+ * the event loop never blocks on MongoDB.
+ */
+@Component
+@Profile("reactive")
+public class JwtReactiveAuthenticationManager implements ReactiveAuthenticationManager {
+    
+    private static final Logger logger = LogManager.getLogger(JwtReactiveAuthenticationManager.class);
+    
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+    
+    @Autowired
+    private ReactiveUserRepository userRepository;
+    
+    @Autowired
+    private CredentialChangeRegistry credentialChangeRegistry;
+    
+    @Autowired
+    private TokenRevocationList revocationList;
+    
+    @Value("${jwt.stateless:false}")
+    private boolean stateless;
+    
+    @Override
+    public Mono<Authentication> authenticate(Authentication authentication) {
+        VerifiedToken token = tokenProvider.verifyToken((String) authentication.getCredentials()).orElse(null);
+        if (token == null) {
+            return Mono.error(new BadCredentialsException("Invalid JWT token"));
+        }
+        if (revocationList.isRevoked(token)) {
+            logger.warn("Rejected revoked token for user: {}", token.getSubject());
+            return Mono.error(new BadCredentialsException("Token has been revoked"));
+        }
+        if (credentialChangeRegistry.isRevoked(token)) {
+            logger.warn("Rejected token issued before credentials changed for user: {}", token.getSubject());
+            return Mono.error(new BadCredentialsException("Token was issued before the user's credentials changed"));
+        }
+        return loadUserDetails(token)
+                .map(userDetails -> new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+    }
+    
+    private Mono<UserDetails> loadUserDetails(VerifiedToken token) {
+        if (stateless && token.getRole() != null) {
+            return Mono.just(User.withUsername(token.getSubject())
+                    .password("")
+                    .authorities(Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + token.getRole().name())))
+                    .build());
+        }
+        return userRepository.findByUsername(token.getSubject())
+                .<UserDetails>map(user -> new AuthenticatedUser(user.getId(), user.getUsername(), user.getPassword(),
+                        user.getRole()))
+                .switchIfEmpty(Mono.error(new BadCredentialsException("User not found: " + token.getSubject())));
+    }
+}
@@ -0,0 +1,218 @@
+package com.employee.reactive.service;
+
+import com.employee.dto.AuthRequest;
+import com.employee.dto.AuthResponse;
+import com.employee.dto.LoginRequest;
+import com.employee.dto.RefreshTokenRequest;
+import com.employee.exception.BadRequestException;
+import com.employee.exception.UnauthorizedException;
+import com.employee.model.RefreshToken;
+import com.employee.model.Role;
+import com.employee.model.User;
+import com.employee.reactive.repository.ReactiveRefreshTokenRepository;
+import com.employee.reactive.repository.ReactiveUserRepository;
+import com.employee.repository.RefreshTokenUpdates;
+import com.employee.security.JwtTokenProvider;
+import com.employee.security.OpaqueTokens;
+import com.employee.security.TokenRevocationList;
+import com.employee.security.VerifiedToken;
+import jakarta.annotation.PostConstruct;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.Callable;
+
+/**
+ * Non-blocking AuthService. MongoDB access goes through the reactive driver;
+ * BCrypt is CPU-bound and the password encoder blocks on its hashing pool,
+ * so those calls are moved off the event loop onto the bounded-elastic scheduler.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveAuthService {
+    
+    private static final Logger logger = LogManager.getLogger(ReactiveAuthService.class);
+    
+    @Autowired
+    private ReactiveUserRepository userRepository;
+    
+    @Autowired
+    private ReactiveRefreshTokenRepository refreshTokenRepository;
+    
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+    
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+    
+    @Autowired
+    private TokenRevocationList revocationList;
+    
+    @Value("${jwt.refresh.expiration}")
+    private long refreshTokenExpirationInMs;
+    
+    private String userNotFoundPassword;
+    
+    @PostConstruct
+    public void init() {
+        // Encoded once at startup, so the first unknown-user login costs no more than the rest.
+        userNotFoundPassword = passwordEncoder.encode("userNotFoundPassword");
+    }
+    
+    public Mono<AuthResponse> register(AuthRequest request) {
+        logger.debug("Registering new user: {}", request.getUsername());
+        
+        return userRepository.existsByUsername(request.getUsername())
+                .flatMap(taken -> taken
+                        ? Mono.error(new BadRequestException("Username is already taken"))
+                        : userRepository.existsByEmail(request.getEmail()))
+                .flatMap(taken -> taken
+                        ? Mono.error(new BadRequestException("Email is already in use"))
+                        : hashing(() -> passwordEncoder.encode(request.getPassword())))
+                .flatMap(encodedPassword -> {
+                    User user = new User();
+                    user.setUsername(request.getUsername());
+                    user.setEmail(request.getEmail());
+                    user.setPassword(encodedPassword);
+                    user.setRole(Role.USER);
+                    user.setCreatedAt(LocalDateTime.now());
+                    user.setUpdatedAt(LocalDateTime.now());
+                    return userRepository.save(user);
+                })
+                // The unique indexes catch a concurrent registration that passed both checks.
+                .onErrorMap(DuplicateKeyException.class, ex -> new BadRequestException("Username or email is already in use"))
+                .doOnNext(user -> logger.info("User registered successfully: {}", user.getUsername()))
+                .flatMap(user -> issueTokens(user.getId(), user.getUsername(), user.getRole()));
+    }
+    
+    public Mono<AuthResponse> login(LoginRequest request) {
+        logger.debug("Login attempt for user: {}", request.getUsername());
+        
+        return userRepository.findByUsername(request.getUsername())
+                .flatMap(user -> hashing(() -> passwordEncoder.matches(request.getPassword(), user.getPassword()))
+                        .filter(Boolean::booleanValue)
+                        .map(matches -> user))
+                .switchIfEmpty(Mono.defer(() -> rejectLogin(request)))
+                .flatMap(user -> upgradeEncoding(user, request.getPassword()).thenReturn(user))
+                .doOnNext(user -> logger.info("User logged in successfully: {}", user.getUsername()))
+                .flatMap(user -> issueTokens(user.getId(), user.getUsername(), user.getRole()));
+    }
+    
+    public Mono<AuthResponse> refreshToken(RefreshTokenRequest request) {
+        logger.debug("Refreshing token");
+        
+        String presentedHash = OpaqueTokens.hash(request.getRefreshToken());
+        String newToken = OpaqueTokens.generate();
+        
+        return mongoTemplate.findAndModify(
+                        RefreshTokenUpdates.unexpired(presentedHash, LocalDateTime.now()),
+                        RefreshTokenUpdates.rotate(presentedHash, OpaqueTokens.hash(newToken)),
+                        FindAndModifyOptions.options().returnNew(true), RefreshToken.class)
+                .switchIfEmpty(Mono.defer(() -> rejectRefreshToken(presentedHash)))
+                // As in AuthService, the username and role stored with the token are trusted:
+                // a credential change or a deleted user removes the token.
+                .map(refreshToken -> {
+                    String accessToken = tokenProvider.generateToken(refreshToken.getUsername(), refreshToken.getRole());
+                    AuthResponse response = new AuthResponse();
+                    response.setAccessToken(accessToken);
+                    response.setRefreshToken(newToken);
+                    response.setUsername(refreshToken.getUsername());
+                    response.setRole(refreshToken.getRole());
+                    logger.debug("Token refreshed successfully for user: {}", refreshToken.getUsername());
+                    return response;
+                });
+    }
+    
+    public Mono<Void> logout(String accessToken) {
+        VerifiedToken token = tokenProvider.verifyToken(accessToken).orElse(null);
+        if (token == null) {
+            return Mono.error(new UnauthorizedException("Invalid access token"));
+        }
+        // The revocation list writes through the blocking repository.
+        return Mono.fromRunnable(() -> revocationList.revoke(token))
+                .subscribeOn(Schedulers.boundedElastic())
+                // Resolved through the unique username index so the delete can use the userId index.
+                .then(userRepository.findByUsername(token.getSubject()))
+                .flatMap(user -> refreshTokenRepository.deleteByUserId(user.getId()))
+                .doOnSuccess(ignored -> logger.info("User logged out: {}", token.getSubject()));
+    }
+    
+    private Mono<User> rejectLogin(LoginRequest request) {
+        // Spend the same BCrypt time for unknown users so response timing does not reveal which usernames exist.
+        return hashing(() -> passwordEncoder.matches(request.getPassword(), userNotFoundPassword))
+                .then(Mono.error(new BadCredentialsException("Bad credentials")));
+    }
+    
+    private Mono<Void> upgradeEncoding(User user, String rawPassword) {
+        if (!passwordEncoder.upgradeEncoding(user.getPassword())) {
+            return Mono.empty();
+        }
+        return hashing(() -> passwordEncoder.encode(rawPassword))
+                .flatMap(encodedPassword -> mongoTemplate.updateFirst(
+                        Query.query(Criteria.where("username").is(user.getUsername())),
+                        Update.update("password", encodedPassword),
+                        User.class))
+                .doOnSuccess(result -> logger.info("Upgraded password hash for user: {}", user.getUsername()))
+                .then();
+    }
+    
+    private Mono<RefreshToken> rejectRefreshToken(String tokenHash) {
+        Mono<RefreshToken> expired = refreshTokenRepository.findByTokenHash(tokenHash)
+                .flatMap(token -> refreshTokenRepository.delete(token)
+                        .then(Mono.<RefreshToken>error(new UnauthorizedException("Refresh token has expired"))));
+        
+        return refreshTokenRepository.findByPreviousTokenHash(tokenHash)
+                .flatMap(rotated -> {
+                    // A rotated-out token came back: assume it was stolen and revoke the whole session.
+                    logger.warn("Refresh token reuse detected for user: {}", rotated.getUsername());
+                    return refreshTokenRepository.delete(rotated)
+                            .then(Mono.<RefreshToken>error(new UnauthorizedException("Refresh token has already been used")));
+                })
+                .switchIfEmpty(expired)
+                .switchIfEmpty(Mono.error(new UnauthorizedException("Invalid refresh token")));
+    }
+    
+    private Mono<AuthResponse> issueTokens(String userId, String username, Role role) {
+        String token = OpaqueTokens.generate();
+        Query query = RefreshTokenUpdates.byUserId(userId);
+        Update update = RefreshTokenUpdates.issue(username, role, OpaqueTokens.hash(token),
+                LocalDateTime.now().plus(refreshTokenExpirationInMs, ChronoUnit.MILLIS));
+        FindAndModifyOptions options = FindAndModifyOptions.options().upsert(true).returnNew(true);
+        
+        return mongoTemplate.findAndModify(query, update, options, RefreshToken.class)
+                // Two logins raced to insert the first token; the loser's retry updates the winner's document.
+                .onErrorResume(DuplicateKeyException.class,
+                        ex -> mongoTemplate.findAndModify(query, update, options, RefreshToken.class))
+                .map(saved -> {
+                    AuthResponse response = new AuthResponse();
+                    response.setAccessToken(tokenProvider.generateToken(username, role));
+                    response.setRefreshToken(token);
+                    response.setUsername(username);
+                    response.setRole(role);
+                    return response;
+                });
+    }
+    
+    private static <T> Mono<T> hashing(Callable<T> task) {
+        return Mono.fromCallable(task).subscribeOn(Schedulers.boundedElastic());
+    }
+}
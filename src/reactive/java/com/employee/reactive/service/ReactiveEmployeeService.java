@@ -0,0 +1,107 @@
+package com.employee.reactive.service;
+
+import com.employee.dto.EmployeeDTO;
+import com.employee.exception.BadRequestException;
+import com.employee.exception.ResourceNotFoundException;
+import com.employee.model.Employee;
+import com.employee.reactive.repository.ReactiveEmployeeRepository;
+import com.employee.service.EmployeeMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+@Service
+@Profile("reactive")
+public class ReactiveEmployeeService {
+    
+    private static final Logger logger = LogManager.getLogger(ReactiveEmployeeService.class);
+    
+    @Autowired
+    private ReactiveEmployeeRepository employeeRepository;
+    
+    @Value("${employee.page.max-size:1000}")
+    private int maxPageSize;
+    
+    /**
+     * Streams employees in id order, starting after {@code afterId} when given.
+     * Without a limit the whole collection is streamed; demand from the client
+     * connection drives the cursor, so nothing is buffered in full.
+     */
+    public Flux<EmployeeDTO> getEmployees(String afterId, Integer limit) {
+        if (limit != null && (limit < 1 || limit > maxPageSize)) {
+            return Flux.error(new BadRequestException("limit must be between 1 and " + maxPageSize));
+        }
+        Sort sort = Sort.by("id");
+        Pageable pageable = limit != null ? PageRequest.of(0, limit, sort) : Pageable.unpaged(sort);
+        Flux<Employee> employees = afterId != null
+                ? employeeRepository.findByIdGreaterThan(afterId, pageable)
+                : employeeRepository.findAllBy(pageable);
+        return employees.map(EmployeeMapper::toDTO);
+    }
+    
+    public Mono<EmployeeDTO> getEmployeeById(String id) {
+        logger.debug("Fetching employee with id: {}", id);
+        return employeeRepository.findById(id)
+                .switchIfEmpty(Mono.error(new ResourceNotFoundException("Employee not found with id: " + id)))
+                .map(EmployeeMapper::toDTO);
+    }
+    
+    public Mono<EmployeeDTO> createEmployee(EmployeeDTO employeeDTO) {
+        logger.debug("Creating new employee: {}", employeeDTO.getEmail());
+        
+        Employee employee = EmployeeMapper.toEntity(employeeDTO);
+        employee.setCreatedAt(LocalDateTime.now());
+        employee.setUpdatedAt(LocalDateTime.now());
+        employee.setVersion(0L);
+        
+        return saveUniqueEmail(employee)
+                .doOnNext(saved -> logger.info("Employee created successfully with id: {}", saved.getId()))
+                .map(EmployeeMapper::toDTO);
+    }
+    
+    public Mono<EmployeeDTO> updateEmployee(String id, EmployeeDTO employeeDTO) {
+        logger.debug("Updating employee with id: {}", id);
+        
+        return employeeRepository.findById(id)
+                .switchIfEmpty(Mono.error(new ResourceNotFoundException("Employee not found with id: " + id)))
+                .flatMap(employee -> {
+                    employee.setFirstName(employeeDTO.getFirstName());
+                    employee.setLastName(employeeDTO.getLastName());
+                    employee.setEmail(employeeDTO.getEmail());
+                    employee.setDepartment(employeeDTO.getDepartment());
+                    employee.setPosition(employeeDTO.getPosition());
+                    employee.setSalary(employeeDTO.getSalary());
+                    employee.setUpdatedAt(LocalDateTime.now());
+                    employee.setVersion(employee.getVersion() == null ? 1L : employee.getVersion() + 1);
+                    return saveUniqueEmail(employee);
+                })
+                .doOnNext(saved -> logger.info("Employee updated successfully with id: {}", saved.getId()))
+                .map(EmployeeMapper::toDTO);
+    }
+    
+    public Mono<Void> deleteEmployee(String id) {
+        logger.debug("Deleting employee with id: {}", id);
+        
+        return employeeRepository.existsById(id)
+                .flatMap(exists -> exists
+                        ? employeeRepository.deleteById(id)
+                        : Mono.error(new ResourceNotFoundException("Employee not found with id: " + id)))
+                .doOnSuccess(ignored -> logger.info("Employee deleted successfully with id: {}", id));
+    }
+    
+    private Mono<Employee> saveUniqueEmail(Employee employee) {
+        return employeeRepository.save(employee)
+                .onErrorMap(DuplicateKeyException.class, ex -> new BadRequestException("Email already exists"));
+    }
+}
@@ -0,0 +1,154 @@
+package com.employee.config;
+
+import com.employee.model.Employee;
+import com.employee.model.RefreshToken;
+import com.mongodb.client.result.DeleteResult;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MongoIndexInitializerTest {
+    
+    private MongoTemplate mongoTemplate;
+    private IndexOperations indexOps;
+    private MongoIndexInitializer initializer;
+    
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        indexOps = mock(IndexOperations.class);
+        when(mongoTemplate.indexOps(any(Class.class))).thenReturn(indexOps);
+        when(mongoTemplate.indexOps(anyString())).thenReturn(indexOps);
+        when(mongoTemplate.remove(any(Query.class), eq(RefreshToken.class))).thenReturn(DeleteResult.acknowledged(0));
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(RefreshToken.class), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(), new Document()));
+        
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setInitialEntitySet(Set.of(RefreshToken.class, Employee.class));
+        mappingContext.setSimpleTypeHolder(new MongoCustomConversions(Collections.emptyList()).getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        
+        initializer = new MongoIndexInitializer();
+        ReflectionTestUtils.setField(initializer, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(initializer, "mappingContext", mappingContext);
+    }
+    
+    @Test
+    void legacyTokenIndexAndDocumentsGoBeforeTheNewIndexesAreBuilt() {
+        when(indexOps.getIndexInfo()).thenReturn(List.of(index("_id_"), index(MongoIndexInitializer.LEGACY_TOKEN_INDEX)));
+        
+        initializer.init();
+        
+        ArgumentCaptor<Query> removed = ArgumentCaptor.forClass(Query.class);
+        var order = inOrder(indexOps, mongoTemplate);
+        order.verify(indexOps).dropIndex(MongoIndexInitializer.LEGACY_TOKEN_INDEX);
+        order.verify(mongoTemplate).remove(removed.capture(), eq(RefreshToken.class));
+        order.verify(indexOps, atLeastOnce()).ensureIndex(any(IndexDefinition.class));
+        assertThat(removed.getValue().getQueryObject())
+                .isEqualTo(new Document("tokenHash", new Document("$exists", false)));
+    }
+    
+    @Test
+    void declaredIndexesAreCreatedWithoutALegacyIndex() {
+        when(indexOps.getIndexInfo()).thenReturn(List.of(index("_id_")));
+        
+        initializer.init();
+        
+        verify(indexOps, never()).dropIndex(anyString());
+        ArgumentCaptor<IndexDefinition> created = ArgumentCaptor.forClass(IndexDefinition.class);
+        verify(indexOps, atLeastOnce()).ensureIndex(created.capture());
+        assertThat(created.getAllValues()).extracting(definition -> definition.getIndexKeys().keySet())
+                .contains(Set.of("tokenHash"), Set.of("userId"), Set.of("expiryDate"));
+    }
+    
+    @Test
+    void onlyTheNewestRefreshTokenOfEachUserIsKeptBeforeTheUserIdIndexIsBuilt() {
+        when(indexOps.getIndexInfo()).thenReturn(List.of(index("_id_")));
+        ObjectId newest = new ObjectId();
+        ObjectId older = new ObjectId();
+        ObjectId oldest = new ObjectId();
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(RefreshToken.class), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(new Document("_id", "64b7f0c2a1b2c3d4e5f60718")
+                        .append("ids", List.of(newest, older, oldest)).append("count", 3)), new Document()));
+        
+        initializer.init();
+        
+        ArgumentCaptor<Query> removed = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(2)).remove(removed.capture(), eq(RefreshToken.class));
+        assertThat(removed.getAllValues().get(1).getQueryObject())
+                .isEqualTo(new Document("id", new Document("$in", List.of(older, oldest))));
+    }
+    
+    @Test
+    void duplicatesAreNotSearchedForOnceTheUserIdIndexExists() {
+        IndexInfo userId = new IndexInfo(List.of(IndexField.create("userId", Sort.Direction.ASC)), "userId", true, false,
+                null);
+        when(indexOps.getIndexInfo()).thenReturn(List.of(index("_id_"), userId));
+        
+        initializer.init();
+        
+        verify(mongoTemplate, never()).aggregate(any(Aggregation.class), eq(RefreshToken.class), eq(Document.class));
+    }
+    
+    @Test
+    void duplicateEmailsAreReportedWhenTheUniqueIndexCannotBeBuilt() {
+        when(indexOps.getIndexInfo()).thenReturn(List.of(index("_id_")));
+        doAnswer(invocation -> {
+            if (invocation.<IndexDefinition>getArgument(0).getIndexKeys().keySet().equals(Set.of("email"))) {
+                throw new DuplicateKeyException("E11000 duplicate key error collection: employees index: email");
+            }
+            return "created";
+        }).when(indexOps).ensureIndex(any(IndexDefinition.class));
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(Employee.class), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(new Document("_id", "ada@example.com")
+                        .append("ids", List.of(new ObjectId(), new ObjectId())).append("count", 2)), new Document()));
+        
+        assertThatThrownBy(() -> initializer.init())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("employees.email");
+        
+        // The other indexes are still built, and nothing is deleted to make the email index fit.
+        ArgumentCaptor<IndexDefinition> created = ArgumentCaptor.forClass(IndexDefinition.class);
+        verify(indexOps, atLeastOnce()).ensureIndex(created.capture());
+        assertThat(created.getAllValues()).extracting(definition -> definition.getIndexKeys().keySet())
+                .contains(Set.of("userId"), Set.of("updatedAt", "_id"));
+        verify(mongoTemplate, never()).remove(any(Query.class), eq(Employee.class));
+    }
+    
+    private static IndexInfo index(String name) {
+        return new IndexInfo(Collections.emptyList(), name, false, false, null);
+    }
+}
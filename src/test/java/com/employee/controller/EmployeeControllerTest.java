@@ -0,0 +1,266 @@
+package com.employee.controller;
+
+import com.employee.exception.GlobalExceptionHandler;
+import com.employee.exception.GoneException;
+import com.employee.service.EmployeeChangeFeed;
+import com.employee.service.InMemoryEmployees;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class EmployeeControllerTest {
+    
+    private static final String ID = "64b7f0c2a1b2c3d4e5f60718";
+    
+    private static final String BODY = "{\"firstName\":\"Ada\",\"lastName\":\"Byron\",\"email\":\"ada@example.com\","
+            + "\"department\":\"Engineering\",\"position\":\"Engineer\",\"salary\":120000}";
+    
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    
+    private InMemoryEmployees store;
+    private EmployeeChangeFeed changeFeed;
+    private MockMvc mockMvc;
+    private LocalDateTime updatedAt;
+    
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryEmployees(1000);
+        changeFeed = mock(EmployeeChangeFeed.class);
+        EmployeeController controller = new EmployeeController();
+        ReflectionTestUtils.setField(controller, "employeeService", store.service);
+        ReflectionTestUtils.setField(controller, "changeFeed", changeFeed);
+        ReflectionTestUtils.setField(controller, "objectMapper", objectMapper);
+        LocalValidatorFactoryBean validator = new LocalValidatorFactoryBean();
+        validator.afterPropertiesSet();
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .setValidator(validator)
+                .setMessageConverters(new StringHttpMessageConverter(),
+                        new MappingJackson2HttpMessageConverter(objectMapper))
+                .build();
+        
+        updatedAt = LocalDateTime.now().minusMinutes(5).truncatedTo(ChronoUnit.MILLIS);
+        store.put(ID, "ada@example.com", updatedAt, updatedAt);
+    }
+    
+    @Test
+    void getReturnsETagAndHonoursIfNoneMatch() throws Exception {
+        mockMvc.perform(get("/api/employees/" + ID))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag(0)))
+                .andExpect(jsonPath("$.data.email").value("ada@example.com"));
+        
+        mockMvc.perform(get("/api/employees/" + ID).header(HttpHeaders.IF_NONE_MATCH, etag(0)))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/employees/" + ID).header(HttpHeaders.IF_NONE_MATCH, "\"1\""))
+                .andExpect(status().isOk());
+    }
+    
+    @Test
+    void listETagFollowsTheCollectionVersion() throws Exception {
+        mockMvc.perform(get("/api/employees"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"v0\""));
+        mockMvc.perform(get("/api/employees").header(HttpHeaders.IF_NONE_MATCH, "\"v0\""))
+                .andExpect(status().isNotModified());
+        
+        mockMvc.perform(put("/api/employees/" + ID).contentType(MediaType.APPLICATION_JSON).content(BODY))
+                .andExpect(status().isOk());
+        
+        mockMvc.perform(get("/api/employees").header(HttpHeaders.IF_NONE_MATCH, "\"v0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"v1\""));
+    }
+    
+    @Test
+    void putWithCurrentIfMatchUpdatesAndReturnsTheNewETag() throws Exception {
+        String newTag = mockMvc.perform(put("/api/employees/" + ID)
+                        .header(HttpHeaders.IF_MATCH, etag(0))
+                        .contentType(MediaType.APPLICATION_JSON).content(BODY))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.lastName").value("Byron"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        
+        assertThat(newTag).isEqualTo(etag(1));
+    }
+    
+    @Test
+    void putWithStaleIfMatchIsRejected() throws Exception {
+        mockMvc.perform(put("/api/employees/" + ID)
+                        .header(HttpHeaders.IF_MATCH, etag(7))
+                        .contentType(MediaType.APPLICATION_JSON).content(BODY))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(put("/api/employees/" + ID)
+                        .header(HttpHeaders.IF_MATCH, "W/\"abc\"")
+                        .contentType(MediaType.APPLICATION_JSON).content(BODY))
+                .andExpect(status().isPreconditionFailed());
+        
+        assertThat(store.employees.get(ID).getLastName()).isEqualTo("Lovelace");
+        assertThat(store.version.get()).isZero();
+    }
+    
+    @Test
+    void staleVersionIsRejectedEvenWhenUpdatedAtIsUnchanged() throws Exception {
+        store.employees.get(ID).setVersion(1L);
+        
+        mockMvc.perform(get("/api/employees/" + ID))
+                .andExpect(header().string(HttpHeaders.ETAG, etag(1)));
+        mockMvc.perform(put("/api/employees/" + ID)
+                        .header(HttpHeaders.IF_MATCH, etag(0))
+                        .contentType(MediaType.APPLICATION_JSON).content(BODY))
+                .andExpect(status().isPreconditionFailed());
+        
+        assertThat(store.employees.get(ID).getUpdatedAt()).isEqualTo(updatedAt);
+        assertThat(store.employees.get(ID).getLastName()).isEqualTo("Lovelace");
+    }
+    
+    @Test
+    void deleteWithIfMatchOnlyRemovesTheReadVersion() throws Exception {
+        mockMvc.perform(delete("/api/employees/" + ID).header(HttpHeaders.IF_MATCH, etag(1)))
+                .andExpect(status().isPreconditionFailed());
+        assertThat(store.employees).containsKey(ID);
+        assertThat(store.tombstones).doesNotContainKey(ID);
+        
+        mockMvc.perform(delete("/api/employees/" + ID).header(HttpHeaders.IF_MATCH, etag(0)))
+                .andExpect(status().isOk());
+        assertThat(store.employees).doesNotContainKey(ID);
+        assertThat(store.tombstones).containsKey(ID);
+        
+        mockMvc.perform(delete("/api/employees/" + ID).header(HttpHeaders.IF_MATCH, etag(0)))
+                .andExpect(status().isNotFound());
+    }
+    
+    @Test
+    void changesReturnTheDeltaAndAWatermarkToResumeFrom() throws Exception {
+        store.tombstone("64b7f0c2a1b2c3d4e5f60001", updatedAt.plusSeconds(1));
+        
+        String watermark = objectMapper.readTree(mockMvc.perform(get("/api/employees/changes").param("limit", "1"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.data.changed[0].id").value(ID))
+                        .andExpect(jsonPath("$.data.deleted").isEmpty())
+                        .andExpect(jsonPath("$.data.hasMore").value(true))
+                        .andReturn().getResponse().getContentAsString())
+                .path("data").path("watermark").asText();
+        
+        mockMvc.perform(get("/api/employees/changes").param("since", watermark))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.changed").isEmpty())
+                .andExpect(jsonPath("$.data.deleted[0]").value("64b7f0c2a1b2c3d4e5f60001"))
+                .andExpect(jsonPath("$.data.hasMore").value(false));
+    }
+    
+    @Test
+    void changesRejectBadAndExpiredWatermarks() throws Exception {
+        mockMvc.perform(get("/api/employees/changes").param("since", "bm90LWEtd2F0ZXJtYXJr"))
+                .andExpect(status().isBadRequest());
+        String expired = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                ("1:" + ID).getBytes(StandardCharsets.UTF_8));
+        mockMvc.perform(get("/api/employees/changes").param("since", expired))
+                .andExpect(status().isGone());
+    }
+    
+    @Test
+    void changeFeedIsChosenByAcceptAndResumesFromLastEventId() throws Exception {
+        when(changeFeed.subscribe(any(), any())).thenAnswer(invocation -> new SseEmitter());
+        
+        mockMvc.perform(get("/api/employees/changes").param("since", "query-token")
+                        .header("Last-Event-ID", "header-token").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+        verify(changeFeed).subscribe(EmployeeChangeFeed.Format.SSE, "header-token");
+        
+        mockMvc.perform(get("/api/employees/changes").param("since", "query-token")
+                        .accept(MediaType.parseMediaType("application/x-ndjson")))
+                .andExpect(request().asyncStarted());
+        verify(changeFeed).subscribe(EmployeeChangeFeed.Format.NDJSON, "query-token");
+    }
+    
+    @Test
+    void changeFeedResumeFailuresAreReportedBeforeStreaming() throws Exception {
+        when(changeFeed.subscribe(any(), any())).thenThrow(new GoneException("Watermark is too old"));
+        
+        mockMvc.perform(get("/api/employees/changes").header("Last-Event-ID", "old-token")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isGone())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+    
+    @Test
+    void patchChangesOnlyTheGivenFieldsInOneWrite() throws Exception {
+        String newTag = mockMvc.perform(patch("/api/employees/" + ID)
+                        .header(HttpHeaders.IF_MATCH, etag(0))
+                        .contentType(MediaType.parseMediaType("application/merge-patch+json"))
+                        .content("{\"salary\":150000}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.salary").value(150000.0))
+                .andExpect(jsonPath("$.data.lastName").value("Lovelace"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        
+        assertThat(newTag).isEqualTo(etag(1));
+        verify(store.employeeRepository).updateIfUnchanged(eq(ID), any(), eq(0L));
+        verify(store.employeeRepository, never()).findById(any());
+    }
+    
+    @Test
+    void patchWithStaleIfMatchIsRejected() throws Exception {
+        mockMvc.perform(patch("/api/employees/" + ID)
+                        .header(HttpHeaders.IF_MATCH, etag(7))
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"salary\":150000}"))
+                .andExpect(status().isPreconditionFailed());
+        
+        assertThat(store.employees.get(ID).getSalary()).isEqualTo(100000.0);
+    }
+    
+    @Test
+    void patchReportsMissingEmployeesAndInvalidBodies() throws Exception {
+        mockMvc.perform(patch("/api/employees/64b7f0c2a1b2c3d4e5f69999")
+                        .header(HttpHeaders.IF_MATCH, etag(0))
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"salary\":150000}"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(patch("/api/employees/" + ID).contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/api/employees/" + ID).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"lastName\":\" \",\"salary\":-1}"))
+                .andExpect(status().isBadRequest());
+        
+        store.put("64b7f0c2a1b2c3d4e5f60002", "grace@example.com", updatedAt, updatedAt);
+        mockMvc.perform(patch("/api/employees/" + ID).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"grace@example.com\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Email already exists"));
+    }
+    
+    static String etag(long version) {
+        return "\"" + version + "\"";
+    }
+}
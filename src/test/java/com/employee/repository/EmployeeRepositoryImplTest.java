@@ -0,0 +1,141 @@
+package com.employee.repository;
+
+import com.employee.model.Employee;
+import com.mongodb.bulk.BulkWriteResult;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EmployeeRepositoryImplTest {
+    
+    private MongoTemplate mongoTemplate;
+    private EmployeeRepositoryImpl repository;
+    
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        repository = new EmployeeRepositoryImpl();
+        ReflectionTestUtils.setField(repository, "mongoTemplate", mongoTemplate);
+    }
+    
+    /**
+     * The planner can skip the in-memory SORT stage only when the sort is the
+     * hinted index's key pattern, so every search sort must match it exactly.
+     */
+    @Test
+    void searchSortsInTheOrderOfTheHintedIndex() {
+        for (String index : List.of(Employee.DEPARTMENT_INDEX, Employee.POSITION_INDEX, Employee.NAME_INDEX)) {
+            Query query = search(new Criteria(), index, null);
+            
+            assertThat(query.getHint()).isEqualTo(index);
+            assertThat(new ArrayList<>(query.getSortObject().keySet()))
+                    .as(index)
+                    .isEqualTo(indexKeys(index));
+            assertThat(query.getSortObject().values()).containsOnly(1);
+        }
+    }
+    
+    @Test
+    void nextPageStartsAfterTheFullSortKey() {
+        Employee after = new Employee();
+        after.setId("64b7f0c2a1b2c3d4e5f60718");
+        after.setPosition("Engineer");
+        after.setSalary(90000.0);
+        
+        Query query = search(Criteria.where("position").is("Engineer"), Employee.POSITION_INDEX, null);
+        assertThat(query.getQueryObject()).doesNotContainKey("$and");
+        
+        query = search(Criteria.where("position").is("Engineer"), Employee.POSITION_INDEX, after);
+        List<?> and = (List<?>) query.getQueryObject().get("$and");
+        assertThat(and.get(0)).isEqualTo(new Document("position", "Engineer"));
+        assertThat(and.get(1)).isEqualTo(new Document("$or", List.of(
+                new Document("position", new Document("$gt", "Engineer")),
+                new Document("position", "Engineer").append("salary", new Document("$gt", 90000.0)),
+                new Document("position", "Engineer").append("salary", 90000.0)
+                        .append("id", new Document("$gt", "64b7f0c2a1b2c3d4e5f60718")))));
+    }
+    
+    @Test
+    void projectionAlwaysIncludesTheSortKeys() {
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        repository.search(new Criteria(), Employee.NAME_INDEX, List.of("email"), null, 10);
+        verify(mongoTemplate).find(captor.capture(), eq(Employee.class));
+        
+        assertThat(captor.getValue().getFieldsObject().keySet())
+                .containsExactlyInAnyOrder("email", "lastName", "firstName");
+    }
+    
+    @Test
+    void bulkSaveInsertsNewIdsAndNeverUpsertsUpdates() {
+        BulkOperations bulk = mock(BulkOperations.class);
+        BulkWriteResult result = mock(BulkWriteResult.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Employee.class)).thenReturn(bulk);
+        when(bulk.execute()).thenReturn(result);
+        // Of the two updates only one matched: the other id was deleted after the caller looked it up.
+        when(result.getMatchedCount()).thenReturn(1);
+        Employee existing = employee("64b7f0c2a1b2c3d4e5f60002");
+        when(mongoTemplate.find(any(Query.class), eq(Employee.class))).thenReturn(List.of(existing));
+        
+        Employee created = employee("64b7f0c2a1b2c3d4e5f60001");
+        Employee deleted = employee("64b7f0c2a1b2c3d4e5f60003");
+        Map<Integer, String> failures = repository.bulkSave(List.of(created, existing, deleted), Set.of(created.getId()));
+        
+        assertThat(failures).containsExactly(entry(2, "Employee not found with id: 64b7f0c2a1b2c3d4e5f60003"));
+        verify(bulk).insert(created);
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(bulk, times(2)).updateOne(any(Query.class), updates.capture());
+        verify(bulk, never()).upsert(any(Query.class), any(Update.class));
+        assertThat(updates.getAllValues())
+                .allSatisfy(update -> assertThat(update.getUpdateObject()).containsOnlyKeys("$set", "$inc"));
+    }
+    
+    private static Employee employee(String id) {
+        LocalDateTime now = LocalDateTime.now();
+        return new Employee(id, "Ada", "Lovelace", id + "@example.com", "Engineering", "Engineer", 100000.0, now, now, 0L);
+    }
+    
+    private Query search(Criteria criteria, String index, Employee after) {
+        repository.search(criteria, index, null, after, 10);
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, atLeastOnce()).find(captor.capture(), eq(Employee.class));
+        return captor.getValue();
+    }
+    
+    // The key pattern declared on Employee, with _id as the mapped "id" property used in queries.
+    private static List<String> indexKeys(String name) {
+        for (CompoundIndex index : Employee.class.getAnnotation(CompoundIndexes.class).value()) {
+            if (index.name().equals(name)) {
+                List<String> keys = new ArrayList<>();
+                Document.parse(index.def()).keySet().forEach(key -> keys.add(key.equals("_id") ? "id" : key));
+                return keys;
+            }
+        }
+        throw new IllegalArgumentException(name);
+    }
+}
@@ -0,0 +1,86 @@
+package com.employee.repository;
+
+import com.employee.model.RefreshToken;
+import com.employee.model.Role;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RefreshTokenRepositoryImplTest {
+    
+    private static final int LOGINS = 8;
+    
+    @Test
+    void concurrentIssuesForOneUserLeaveOneToken() throws Exception {
+        // Stands in for the unique userId index: every first attempt sees no
+        // document, then all but one insert lose, as racing upserts do.
+        Map<String, RefreshToken> byUserId = new ConcurrentHashMap<>();
+        CyclicBarrier insertWindow = new CyclicBarrier(LOGINS);
+        AtomicInteger duplicateKeys = new AtomicInteger();
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(RefreshToken.class))).thenAnswer(invocation -> {
+                    String userId = invocation.<Query>getArgument(0).getQueryObject().getString("userId");
+                    Document set = (Document) invocation.<Update>getArgument(1).getUpdateObject().get("$set");
+                    RefreshToken existing = byUserId.get(userId);
+                    if (existing == null) {
+                        insertWindow.await(5, TimeUnit.SECONDS);
+                        RefreshToken inserted = new RefreshToken();
+                        inserted.setUserId(userId);
+                        if (byUserId.putIfAbsent(userId, inserted) != null) {
+                            duplicateKeys.incrementAndGet();
+                            throw new DuplicateKeyException("E11000 duplicate key error index: userId");
+                        }
+                        existing = inserted;
+                    }
+                    synchronized (existing) {
+                        existing.setTokenHash(set.getString("tokenHash"));
+                        return existing;
+                    }
+                });
+        RefreshTokenRepositoryImpl repository = new RefreshTokenRepositoryImpl();
+        ReflectionTestUtils.setField(repository, "mongoTemplate", mongoTemplate);
+        
+        ExecutorService executor = Executors.newFixedThreadPool(LOGINS);
+        try {
+            List<Future<RefreshToken>> logins = new ArrayList<>();
+            for (int i = 0; i < LOGINS; i++) {
+                String hash = "hash-" + i;
+                logins.add(executor.submit(() -> repository.issue("user-1", "alice", Role.USER, hash,
+                        LocalDateTime.now().plusDays(7))));
+            }
+            for (Future<RefreshToken> login : logins) {
+                assertThat(login.get(10, TimeUnit.SECONDS).getUserId()).isEqualTo("user-1");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        assertThat(duplicateKeys.get()).isEqualTo(LOGINS - 1);
+        assertThat(byUserId).hasSize(1);
+        assertThat(byUserId.get("user-1").getTokenHash()).startsWith("hash-");
+    }
+}
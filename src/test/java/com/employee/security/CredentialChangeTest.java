@@ -0,0 +1,155 @@
+package com.employee.security;
+
+import com.employee.exception.ResourceNotFoundException;
+import com.employee.model.Role;
+import com.employee.model.User;
+import com.employee.repository.RefreshTokenRepository;
+import com.employee.repository.UserRepository;
+import com.employee.service.AuthService;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CredentialChangeTest {
+    
+    private UserRepository userRepository;
+    private RefreshTokenRepository refreshTokenRepository;
+    private JwtTokenProvider tokenProvider;
+    private CredentialChangeRegistry registry;
+    private AuthService authService;
+    private JwtAuthenticationFilter filter;
+    
+    @BeforeEach
+    void setUp() {
+        registry = new CredentialChangeRegistry();
+        ReflectionTestUtils.setField(registry, "jwtExpirationInMs", 86400000L);
+        registry.init();
+        
+        userRepository = mock(UserRepository.class);
+        refreshTokenRepository = mock(RefreshTokenRepository.class);
+        PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+        when(passwordEncoder.encode(anyString())).thenAnswer(invocation -> "hash-" + invocation.getArgument(0));
+        authService = new AuthService();
+        ReflectionTestUtils.setField(authService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(authService, "refreshTokenRepository", refreshTokenRepository);
+        ReflectionTestUtils.setField(authService, "passwordEncoder", passwordEncoder);
+        ReflectionTestUtils.setField(authService, "credentialChangeRegistry", registry);
+        
+        tokenProvider = mock(JwtTokenProvider.class);
+        filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "tokenProvider", tokenProvider);
+        ReflectionTestUtils.setField(filter, "userDetailsService", mock(UserDetailsService.class));
+        ReflectionTestUtils.setField(filter, "credentialChangeRegistry", registry);
+        ReflectionTestUtils.setField(filter, "revocationList", mock(TokenRevocationList.class));
+        ReflectionTestUtils.setField(filter, "stateless", true);
+    }
+    
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+    
+    @Test
+    void roleChangeRejectsEarlierTokensAndDeletesTheRefreshToken() throws Exception {
+        VerifiedToken before = token(Role.ADMIN, Instant.now().minus(1, ChronoUnit.HOURS));
+        assertThat(authenticate(before)).isNotNull();
+        User user = user(Role.ADMIN, "hash");
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user));
+        
+        authService.changeRole("alice", Role.USER);
+        
+        assertThat(user.getRole()).isEqualTo(Role.USER);
+        assertThat(user.getCredentialsChangedAt()).isNotNull();
+        verify(userRepository).save(user);
+        // Refresh trusts the role stored with the token, so the token from before the demotion is deleted.
+        verify(refreshTokenRepository).deleteByUserId(user.getId());
+        assertThat(authenticate(before)).isNull();
+        Instant changed = user.getCredentialsChangedAt().atZone(ZoneId.systemDefault()).toInstant();
+        assertThat(authenticate(token(Role.USER, changed.plusMillis(1)))).isNotNull();
+    }
+    
+    @Test
+    void passwordChangeIsStamped() {
+        User user = user(Role.USER, "old-hash");
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user));
+        
+        authService.changePassword("alice", "new-password");
+        
+        assertThat(user.getPassword()).isEqualTo("hash-new-password");
+        assertThat(user.getCredentialsChangedAt()).isNotNull();
+        verify(refreshTokenRepository).deleteByUserId(user.getId());
+    }
+    
+    @Test
+    void unknownUsersAreNotChanged() {
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.empty());
+        
+        assertThatThrownBy(() -> authService.changeRole("alice", Role.USER))
+                .isInstanceOf(ResourceNotFoundException.class);
+        verify(userRepository, never()).save(any());
+        verify(refreshTokenRepository, never()).deleteByUserId(anyString());
+    }
+    
+    @Test
+    void onlyTokensIssuedStrictlyAfterTheChangeAreAccepted() {
+        LocalDateTime changedAt = LocalDateTime.of(2026, 3, 1, 9, 30, 15, 400_000_000);
+        Instant changed = changedAt.atZone(ZoneId.systemDefault()).toInstant();
+        User user = user(Role.USER, "hash");
+        user.setCredentialsChangedAt(changedAt);
+        registry.recordChange(user);
+        
+        assertThat(registry.isRevoked(token(Role.USER, changed))).isTrue();
+        assertThat(registry.isRevoked(token(Role.USER, changed.minusMillis(1)))).isTrue();
+        assertThat(registry.isRevoked(token(Role.USER, changed.plusMillis(1)))).isFalse();
+        // Whole-second issue times cannot tell the change's second apart, so they need the next one.
+        Instant sameSecond = changed.truncatedTo(ChronoUnit.SECONDS);
+        assertThat(registry.isRevoked(token(Role.USER, sameSecond))).isTrue();
+        assertThat(registry.isRevoked(token(Role.USER, sameSecond.plusSeconds(1)))).isFalse();
+    }
+    
+    private Authentication authenticate(VerifiedToken token) throws Exception {
+        SecurityContextHolder.clearContext();
+        when(tokenProvider.verifyToken(anyString())).thenReturn(Optional.of(token));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/employees");
+        request.addHeader("Authorization", "Bearer token");
+        filter.doFilter(request, new MockHttpServletResponse(), mock(FilterChain.class));
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+    
+    private static VerifiedToken token(Role role, Instant issuedAt) {
+        Instant millis = issuedAt.truncatedTo(ChronoUnit.MILLIS);
+        return new VerifiedToken("jti", "alice", role, millis, millis.plus(1, ChronoUnit.DAYS));
+    }
+    
+    private static User user(Role role, String password) {
+        User user = new User();
+        user.setId("64b7f0c2a1b2c3d4e5f60718");
+        user.setUsername("alice");
+        user.setPassword(password);
+        user.setRole(role);
+        return user;
+    }
+}
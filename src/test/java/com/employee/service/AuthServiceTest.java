@@ -0,0 +1,166 @@
+package com.employee.service;
+
+import com.employee.dto.AuthResponse;
+import com.employee.dto.RefreshTokenRequest;
+import com.employee.exception.UnauthorizedException;
+import com.employee.model.RefreshToken;
+import com.employee.model.Role;
+import com.employee.model.User;
+import com.employee.repository.RefreshTokenRepository;
+import com.employee.repository.UserRepository;
+import com.employee.security.JwtTokenProvider;
+import com.employee.security.OpaqueTokens;
+import com.employee.security.TokenRevocationList;
+import com.employee.security.VerifiedToken;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class AuthServiceTest {
+    
+    private static final String USER_ID = "64b7f0c2a1b2c3d4e5f60718";
+    
+    private UserRepository userRepository;
+    private RefreshTokenRepository refreshTokenRepository;
+    private JwtTokenProvider tokenProvider;
+    private AuthService authService;
+    
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        refreshTokenRepository = mock(RefreshTokenRepository.class);
+        tokenProvider = mock(JwtTokenProvider.class);
+        when(tokenProvider.generateToken(anyString(), any(Role.class)))
+                .thenAnswer(invocation -> "access-" + invocation.getArgument(1));
+        
+        authService = new AuthService();
+        ReflectionTestUtils.setField(authService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(authService, "refreshTokenRepository", refreshTokenRepository);
+        ReflectionTestUtils.setField(authService, "tokenProvider", tokenProvider);
+        ReflectionTestUtils.setField(authService, "refreshTokenExpirationInMs", 604800000L);
+    }
+    
+    @Test
+    void refreshIssuesFromTheRotatedTokenWithoutReadingTheUser() {
+        RefreshToken stored = refreshToken(Role.ADMIN, LocalDateTime.now().minusHours(1));
+        when(refreshTokenRepository.rotate(anyString(), anyString(), any())).thenReturn(stored);
+        
+        AuthResponse response = authService.refreshToken(new RefreshTokenRequest("presented"));
+        
+        assertThat(response.getUsername()).isEqualTo("alice");
+        assertThat(response.getRole()).isEqualTo(Role.ADMIN);
+        assertThat(response.getAccessToken()).isEqualTo("access-ADMIN");
+        verifyNoInteractions(userRepository);
+    }
+    
+    @Test
+    void concurrentRefreshesOfOneTokenHaveExactlyOneWinner() throws Exception {
+        // Rotation is a single findAndModify in MongoDB, so only one caller can match the presented hash.
+        RefreshToken stored = refreshToken(Role.USER, LocalDateTime.now().minusHours(1));
+        stored.setTokenHash(OpaqueTokens.hash("presented"));
+        when(refreshTokenRepository.rotate(anyString(), anyString(), any())).thenAnswer(invocation -> {
+            synchronized (stored) {
+                if (!stored.getTokenHash().equals(invocation.getArgument(0))) {
+                    return null;
+                }
+                stored.setPreviousTokenHash(invocation.getArgument(0));
+                stored.setTokenHash(invocation.getArgument(1));
+                return stored;
+            }
+        });
+        when(refreshTokenRepository.findByPreviousTokenHash(anyString())).thenAnswer(invocation -> {
+            synchronized (stored) {
+                return invocation.getArgument(0).equals(stored.getPreviousTokenHash())
+                        ? Optional.of(stored) : Optional.empty();
+            }
+        });
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.empty());
+        int callers = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger successes = new AtomicInteger();
+        AtomicInteger rejections = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<?>> refreshes = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                refreshes.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        authService.refreshToken(new RefreshTokenRequest("presented"));
+                        successes.incrementAndGet();
+                    } catch (UnauthorizedException e) {
+                        rejections.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> refresh : refreshes) {
+                refresh.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        assertThat(successes.get()).isEqualTo(1);
+        assertThat(rejections.get()).isEqualTo(callers - 1);
+    }
+    
+    @Test
+    void logoutRevokesTheAccessTokenAndDeletesTheRefreshTokenByUserId() {
+        TokenRevocationList revocationList = mock(TokenRevocationList.class);
+        ReflectionTestUtils.setField(authService, "revocationList", revocationList);
+        VerifiedToken token = new VerifiedToken("jti-1", "alice", Role.USER, Instant.now(),
+                Instant.now().plusSeconds(60));
+        when(tokenProvider.verifyToken("access")).thenReturn(Optional.of(token));
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user(Role.USER)));
+        
+        authService.logout("access");
+        
+        verify(revocationList).revoke(token);
+        verify(refreshTokenRepository).deleteByUserId(USER_ID);
+    }
+    
+    private static RefreshToken refreshToken(Role role, LocalDateTime createdAt) {
+        RefreshToken token = new RefreshToken();
+        token.setId("rt-1");
+        token.setUserId(USER_ID);
+        token.setUsername("alice");
+        token.setRole(role);
+        token.setTokenHash("hash");
+        token.setExpiryDate(LocalDateTime.now().plusDays(7));
+        token.setCreatedAt(createdAt);
+        return token;
+    }
+    
+    private static User user(Role role) {
+        User user = new User();
+        user.setId(USER_ID);
+        user.setUsername("alice");
+        user.setPassword("hash");
+        user.setRole(role);
+        return user;
+    }
+}
@@ -0,0 +1,197 @@
+package com.employee.service;
+
+import com.employee.dto.EmployeeChangeEvent;
+import com.employee.exception.GoneException;
+import com.employee.model.Employee;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EmployeeChangeFeedTest {
+    
+    private EmployeeService employeeService;
+    private SimpleMeterRegistry meterRegistry;
+    private EmployeeChangeFeed feed;
+    
+    @BeforeEach
+    void setUp() {
+        employeeService = mock(EmployeeService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        feed = new EmployeeChangeFeed();
+        ReflectionTestUtils.setField(feed, "employeeService", employeeService);
+        ReflectionTestUtils.setField(feed, "objectMapper", Jackson2ObjectMapperBuilder.json().build());
+        ReflectionTestUtils.setField(feed, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(feed, "maxSubscribers", 100);
+        ReflectionTestUtils.setField(feed, "bufferSize", 16);
+        ReflectionTestUtils.setField(feed, "threads", 1);
+        ReflectionTestUtils.setField(feed, "timeoutInMs", 60000L);
+        ReflectionTestUtils.setField(feed, "maxReplay", 1000);
+        ReflectionTestUtils.setField(feed, "sendTimeoutInMs", 100L);
+        ReflectionTestUtils.setField(feed, "syncSettleTimeInMs", 1000L);
+        feed.init();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        feed.shutdown();
+    }
+    
+    @Test
+    void stalledSubscriberIsEvictedWithoutHoldingUpOthers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch blocked = new CountDownLatch(1);
+        connect(feed.subscribe(EmployeeChangeFeed.Format.NDJSON, null), new ArrayList<>(), blocked, release);
+        feed.publish(event("64b7f0c2a1b2c3d4e5f60001"));
+        assertThat(blocked.await(5, TimeUnit.SECONDS)).isTrue();
+        
+        // The only pool thread is now stuck writing to the first subscriber.
+        List<Object> received = new CopyOnWriteArrayList<>();
+        connect(feed.subscribe(EmployeeChangeFeed.Format.NDJSON, null), received, null, null);
+        feed.publish(event("64b7f0c2a1b2c3d4e5f60002"));
+        Thread.sleep(200);
+        assertThat(received).isEmpty();
+        
+        feed.evictStalled();
+        
+        awaitSize(received, 1);
+        assertThat(received.get(0).toString()).contains("64b7f0c2a1b2c3d4e5f60002");
+        assertThat(feed.subscriberCount()).isEqualTo(1);
+        assertThat(meterRegistry.counter("employee.feed.evicted").count()).isEqualTo(1.0);
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(feed, "executor");
+        assertThat(executor.getCorePoolSize()).isEqualTo(2);
+        
+        // Once the blocked write fails, the stand-in thread is retired again.
+        release.countDown();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (executor.getCorePoolSize() != 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(executor.getCorePoolSize()).isEqualTo(1);
+    }
+    
+    @Test
+    void resumeTooFarBehindIsGone() {
+        List<EmployeeChangeEvent> fullPage = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            fullPage.add(event(String.format("64b7f0c2a1b2c3d4e5f6%04x", i)));
+        }
+        when(employeeService.replayChanges(anyString(), anyInt())).thenReturn(fullPage);
+        String token = fullPage.get(0).getToken();
+        
+        assertThatThrownBy(() -> feed.subscribe(EmployeeChangeFeed.Format.NDJSON, token))
+                .isInstanceOf(GoneException.class);
+        assertThat(feed.subscriberCount()).isZero();
+    }
+    
+    @Test
+    void resumeReplaysTheGapOnceThenFollowsLiveEvents() throws Exception {
+        InMemoryEmployees store = new InMemoryEmployees(1000);
+        ReflectionTestUtils.setField(feed, "employeeService", store.service);
+        LocalDateTime old = LocalDateTime.now().minusMinutes(5).truncatedTo(ChronoUnit.MILLIS);
+        store.put("64b7f0c2a1b2c3d4e5f60001", "a@example.com", old, old);
+        store.put("64b7f0c2a1b2c3d4e5f60002", "b@example.com", old, old.plusSeconds(1));
+        LocalDateTime recent = LocalDateTime.now().minus(50, ChronoUnit.MILLIS).truncatedTo(ChronoUnit.MILLIS);
+        Employee inFlight = store.put("64b7f0c2a1b2c3d4e5f60003", "c@example.com", recent, recent);
+        
+        List<Object> received = new CopyOnWriteArrayList<>();
+        connect(feed.subscribe(EmployeeChangeFeed.Format.NDJSON,
+                ChangeWatermark.encode(old, "64b7f0c2a1b2c3d4e5f60001")), received, null, null);
+        awaitSize(received, 2);
+        
+        // The live copy of a change the replay already sent is skipped; new changes follow.
+        feed.publish(EmployeeService.changeEvent(EmployeeChangeEvent.Type.CREATED, inFlight, null));
+        feed.publish(event("64b7f0c2a1b2c3d4e5f60004"));
+        awaitSize(received, 3);
+        Thread.sleep(100);
+        
+        assertThat(received).hasSize(3);
+        assertThat(received.get(0).toString()).contains("64b7f0c2a1b2c3d4e5f60002");
+        assertThat(received.get(1).toString()).contains("64b7f0c2a1b2c3d4e5f60003");
+        assertThat(received.get(2).toString()).contains("64b7f0c2a1b2c3d4e5f60004");
+    }
+    
+    @Test
+    void lappedSubscriberGetsResyncAndIsClosed() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch blocked = new CountDownLatch(1);
+        List<Object> received = new CopyOnWriteArrayList<>();
+        connect(feed.subscribe(EmployeeChangeFeed.Format.NDJSON, null), received, blocked, release);
+        feed.publish(event("64b7f0c2a1b2c3d4e5f60000"));
+        assertThat(blocked.await(5, TimeUnit.SECONDS)).isTrue();
+        
+        // Overwrite the whole ring while the subscriber is still on its first event.
+        for (int i = 1; i <= 20; i++) {
+            feed.publish(event(String.format("64b7f0c2a1b2c3d4e5f6%04x", i)));
+        }
+        release.countDown();
+        
+        awaitSize(received, 2);
+        assertThat(received.get(1).toString()).contains("RESYNC");
+        long deadline = System.currentTimeMillis() + 5000;
+        while (feed.subscriberCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(feed.subscriberCount()).isZero();
+        assertThat(meterRegistry.counter("employee.feed.resync").count()).isEqualTo(1.0);
+    }
+    
+    static EmployeeChangeEvent event(String id) {
+        return new EmployeeChangeEvent(EmployeeChangeEvent.Type.UPDATED, id, null,
+                ChangeWatermark.encode(LocalDateTime.now(), id));
+    }
+    
+    static void awaitSize(Collection<?> collection, int size) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (collection.size() < size && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(collection).hasSize(size);
+    }
+    
+    /**
+     * Attaches the emitter to a handler the way the MVC return value handler
+     * would, recording what is sent. With a latch pair, every send blocks
+     * until released, like a write to a client that stopped reading.
+     */
+    static void connect(ResponseBodyEmitter emitter, List<Object> received, CountDownLatch blocked,
+                        CountDownLatch release) throws Exception {
+        Class<?> handlerType = Class.forName(ResponseBodyEmitter.class.getName() + "$Handler");
+        Object handler = Proxy.newProxyInstance(handlerType.getClassLoader(), new Class<?>[]{handlerType},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("send")) {
+                        if (blocked != null) {
+                            blocked.countDown();
+                            release.await();
+                        }
+                        received.add(args[0] instanceof Collection<?> data ? data.toString() : args[0]);
+                    }
+                    return null;
+                });
+        Method initialize = ResponseBodyEmitter.class.getDeclaredMethod("initialize", handlerType);
+        initialize.setAccessible(true);
+        initialize.invoke(emitter, handler);
+    }
+}
@@ -0,0 +1,226 @@
+package com.employee.service;
+
+import com.employee.dto.BulkItemResult;
+import com.employee.dto.CursorPage;
+import com.employee.dto.EmployeeChangeEvent;
+import com.employee.dto.EmployeeChanges;
+import com.employee.dto.EmployeeDTO;
+import com.employee.dto.EmployeeSearchRequest;
+import com.employee.exception.BadRequestException;
+import com.employee.exception.GoneException;
+import com.employee.model.Employee;
+import com.employee.model.EmployeeTombstone;
+import com.employee.repository.CollectionVersionRepository;
+import com.employee.repository.EmployeeRepository;
+import com.employee.repository.EmployeeTombstoneRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EmployeeServiceTest {
+    
+    private EmployeeRepository employeeRepository;
+    private EmployeeService employeeService;
+    
+    @BeforeEach
+    void setUp() {
+        employeeRepository = mock(EmployeeRepository.class);
+        employeeService = new EmployeeService();
+        ReflectionTestUtils.setField(employeeService, "employeeRepository", employeeRepository);
+        ReflectionTestUtils.setField(employeeService, "tombstoneRepository", mock(EmployeeTombstoneRepository.class));
+        ReflectionTestUtils.setField(employeeService, "collectionVersionRepository",
+                mock(CollectionVersionRepository.class));
+        ReflectionTestUtils.setField(employeeService, "employeeCache", mock(EmployeeCache.class));
+        ReflectionTestUtils.setField(employeeService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(employeeService, "eventPublisher", (ApplicationEventPublisher) event -> { });
+        ReflectionTestUtils.setField(employeeService, "maxPageSize", 1000);
+        ReflectionTestUtils.setField(employeeService, "syncSettleTimeInMs", 1000L);
+        employeeService.init();
+    }
+    
+    @Test
+    void deltaSyncPagesThroughEveryChangeOnceInOrder() {
+        InMemoryEmployees store = new InMemoryEmployees(1000);
+        LocalDateTime base = LocalDateTime.now().minusHours(1).truncatedTo(ChronoUnit.MILLIS);
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 23; i++) {
+            String id = String.format("64b7f0c2a1b2c3d4e5f6%04x", i);
+            // Pairs share a timestamp, so paging has to break ties on the id.
+            LocalDateTime time = base.plusSeconds(i / 2);
+            if (i % 5 == 4) {
+                store.tombstone(id, time);
+                expected.add("-" + id);
+            } else {
+                store.put(id, id + "@example.com", base, time);
+                expected.add(id);
+            }
+        }
+        
+        List<String> seen = new ArrayList<>();
+        String watermark = null;
+        EmployeeChanges page;
+        do {
+            page = store.service.getChanges(watermark, 4);
+            assertThat(page.getChanged().size() + page.getDeleted().size()).isLessThanOrEqualTo(4);
+            page.getChanged().forEach(employee -> seen.add(employee.getId()));
+            page.getDeleted().forEach(id -> seen.add("-" + id));
+            watermark = page.getWatermark();
+        } while (page.isHasMore());
+        
+        // Changed and deleted ids come back in separate lists, so compare per page order within each kind.
+        assertThat(seen).containsExactlyInAnyOrderElementsOf(expected);
+        assertThat(seen.stream().filter(id -> !id.startsWith("-")))
+                .containsExactlyElementsOf(expected.stream().filter(id -> !id.startsWith("-")).toList());
+        
+        EmployeeChanges caughtUp = store.service.getChanges(watermark, 4);
+        assertThat(caughtUp.getChanged()).isEmpty();
+        assertThat(caughtUp.getDeleted()).isEmpty();
+        assertThat(caughtUp.getWatermark()).isEqualTo(watermark);
+        assertThat(caughtUp.isHasMore()).isFalse();
+    }
+    
+    @Test
+    void deltaSyncHoldsBackChangesYoungerThanTheSettleTime() {
+        InMemoryEmployees store = new InMemoryEmployees(60000);
+        LocalDateTime old = LocalDateTime.now().minusMinutes(5).truncatedTo(ChronoUnit.MILLIS);
+        store.put("64b7f0c2a1b2c3d4e5f60001", "old@example.com", old, old);
+        LocalDateTime recent = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        store.put("64b7f0c2a1b2c3d4e5f60002", "recent@example.com", recent, recent);
+        
+        EmployeeChanges changes = store.service.getChanges(null, 10);
+        
+        assertThat(changes.getChanged()).extracting(EmployeeDTO::getId).containsExactly("64b7f0c2a1b2c3d4e5f60001");
+        assertThat(changes.getWatermark())
+                .isEqualTo(ChangeWatermark.encode(old, "64b7f0c2a1b2c3d4e5f60001"));
+    }
+    
+    @Test
+    void deltaSyncRejectsBadAndExpiredWatermarks() {
+        InMemoryEmployees store = new InMemoryEmployees(1000);
+        String expired = ChangeWatermark.encode(LocalDateTime.now().minusDays(EmployeeTombstone.RETENTION_DAYS + 1),
+                "64b7f0c2a1b2c3d4e5f60001");
+        
+        assertThatThrownBy(() -> store.service.getChanges(expired, 10)).isInstanceOf(GoneException.class);
+        assertThatThrownBy(() -> store.service.getChanges("not-a-watermark", 10))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> store.service.getChanges(null, 0)).isInstanceOf(BadRequestException.class);
+    }
+    
+    @Test
+    void searchCursorCarriesTheLastRowsIndexKeys() {
+        Employee first = new Employee("64b7f0c2a1b2c3d4e5f60001", "Ada", "Lovelace", "ada@example.com",
+                "Engineering", "Engineer", 90000.0, null, null, null);
+        Employee second = new Employee("64b7f0c2a1b2c3d4e5f60002", "Alan", "Turing", "alan@example.com",
+                "Engineering", "Engineer", 95000.0, null, null, null);
+        when(employeeRepository.search(any(), eq(Employee.DEPARTMENT_INDEX), any(), any(), eq(2)))
+                .thenReturn(List.of(first, second));
+        EmployeeSearchRequest request = new EmployeeSearchRequest();
+        request.setDepartment("Engineering");
+        request.setFields(List.of("email"));
+        request.setLimit(1);
+        
+        CursorPage<EmployeeDTO> page = employeeService.searchEmployees(request);
+        
+        assertThat(page.getItems()).extracting(EmployeeDTO::getEmail).containsExactly("ada@example.com");
+        // The index keys were read for the cursor but are not returned unless requested.
+        assertThat(page.getItems().get(0).getSalary()).isNull();
+        assertThat(page.getItems().get(0).getDepartment()).isNull();
+        
+        request.setCursor(page.getNextCursor());
+        employeeService.searchEmployees(request);
+        ArgumentCaptor<Employee> after = ArgumentCaptor.forClass(Employee.class);
+        verify(employeeRepository, times(2))
+                .search(any(), eq(Employee.DEPARTMENT_INDEX), any(), after.capture(), eq(2));
+        assertThat(after.getAllValues().get(0)).isNull();
+        assertThat(after.getAllValues().get(1)).usingRecursiveComparison()
+                .ignoringFields("email", "createdAt", "updatedAt").isEqualTo(first);
+        
+        request.setCursor("bm90LWpzb24");
+        assertThatThrownBy(() -> employeeService.searchEmployees(request)).isInstanceOf(BadRequestException.class);
+    }
+    
+    @Test
+    void bulkUpdatesKeepCreatedAtAndReportDeletedIdsAsNotFound() {
+        List<EmployeeChangeEvent> events = new ArrayList<>();
+        ReflectionTestUtils.setField(employeeService, "eventPublisher",
+                (ApplicationEventPublisher) event -> events.add((EmployeeChangeEvent) event));
+        ReflectionTestUtils.setField(employeeService, "validator",
+                Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(employeeService, "bulkChunkSize", 1000);
+        LocalDateTime createdAt = LocalDateTime.now().minusDays(3);
+        String updatedId = "64b7f0c2a1b2c3d4e5f60001";
+        String deletedId = "64b7f0c2a1b2c3d4e5f60002";
+        when(employeeRepository.findIdsByEmail(any())).thenReturn(Map.of());
+        when(employeeRepository.findCreatedAt(any())).thenReturn(Map.of(updatedId, createdAt, deletedId, createdAt));
+        // The second update matched nothing: the employee was deleted between the lookup and the write.
+        when(employeeRepository.bulkSave(any(), any()))
+                .thenReturn(Map.of(1, "Employee not found with id: " + deletedId));
+        EmployeeDTO update = employee("ada@example.com");
+        update.setId(updatedId);
+        EmployeeDTO gone = employee("alan@example.com");
+        gone.setId(deletedId);
+        List<BulkItemResult> results = new ArrayList<>();
+        
+        employeeService.saveEmployees(List.of(update, gone, employee("grace@example.com")).iterator(), results::add);
+        
+        assertThat(results).extracting(BulkItemResult::getStatus).containsExactly(BulkItemResult.Status.UPDATED,
+                BulkItemResult.Status.FAILED, BulkItemResult.Status.CREATED);
+        assertThat(results.get(1).getMessage()).isEqualTo("Employee not found with id: " + deletedId);
+        ArgumentCaptor<List<Employee>> writes = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<Set<String>> newIds = ArgumentCaptor.forClass(Set.class);
+        verify(employeeRepository).bulkSave(writes.capture(), newIds.capture());
+        assertThat(writes.getValue().get(0).getCreatedAt()).isEqualTo(createdAt);
+        assertThat(newIds.getValue()).containsExactly(writes.getValue().get(2).getId());
+        assertThat(events).extracting(EmployeeChangeEvent::getType)
+                .containsExactly(EmployeeChangeEvent.Type.UPDATED, EmployeeChangeEvent.Type.CREATED);
+    }
+    
+    @Test
+    void tombstonesAreWrittenBeforeTheEmployeesAreDeleted() {
+        EmployeeTombstoneRepository tombstoneRepository = mock(EmployeeTombstoneRepository.class);
+        ReflectionTestUtils.setField(employeeService, "tombstoneRepository", tombstoneRepository);
+        ReflectionTestUtils.setField(employeeService, "bulkChunkSize", 1000);
+        when(tombstoneRepository.save(any(EmployeeTombstone.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(employeeRepository.deleteIfUnchanged(any(), any())).thenReturn(1L);
+        String id = "64b7f0c2a1b2c3d4e5f60001";
+        when(employeeRepository.findExistingIds(any())).thenReturn(Set.of(id));
+        
+        employeeService.deleteEmployee(id);
+        employeeService.deleteEmployees(List.of(id).iterator(), result -> { });
+        
+        InOrder order = inOrder(tombstoneRepository, employeeRepository);
+        order.verify(tombstoneRepository).save(any(EmployeeTombstone.class));
+        order.verify(employeeRepository).deleteIfUnchanged(id, null);
+        order.verify(tombstoneRepository).saveAll(any());
+        order.verify(employeeRepository).deleteByIdIn(Set.of(id));
+        // The delete count says whether the employee existed, so there is no check first.
+        verify(employeeRepository, never()).existsById(any());
+    }
+    
+    static EmployeeDTO employee(String email) {
+        return new EmployeeDTO(null, "Ada", "Lovelace", email, "Engineering", "Engineer", 100000.0, null, null);
+    }
+}
@@ -0,0 +1,188 @@
+package com.employee.service;
+
+import com.employee.dto.EmployeeChangeEvent;
+import com.employee.model.CollectionVersion;
+import com.employee.model.Employee;
+import com.employee.model.EmployeeTombstone;
+import com.employee.repository.CollectionVersionRepository;
+import com.employee.repository.EmployeeRepository;
+import com.employee.repository.EmployeeTombstoneRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.nullable;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * An {@link EmployeeService} over in-memory stand-ins for the employee,
+ * tombstone and collection version repositories, following the same
+ * version-guarded write and (timestamp, id) ordering rules as the MongoDB queries.
+ */
+public final class InMemoryEmployees {
+    
+    public final Map<String, Employee> employees = new ConcurrentSkipListMap<>();
+    
+    public final Map<String, EmployeeTombstone> tombstones = new ConcurrentSkipListMap<>();
+    
+    public final AtomicLong version = new AtomicLong();
+    
+    public final List<EmployeeChangeEvent> events = new CopyOnWriteArrayList<>();
+    
+    public final EmployeeRepository employeeRepository = mock(EmployeeRepository.class);
+    
+    public final EmployeeService service = new EmployeeService();
+    
+    public InMemoryEmployees(long syncSettleTimeInMs) {
+        EmployeeTombstoneRepository tombstoneRepository = mock(EmployeeTombstoneRepository.class);
+        CollectionVersionRepository collectionVersionRepository = mock(CollectionVersionRepository.class);
+        EmployeeCache employeeCache = mock(EmployeeCache.class);
+        
+        when(employeeRepository.findById(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(employees.get(invocation.<String>getArgument(0)))
+                        .map(InMemoryEmployees::copy));
+        when(employeeRepository.existsById(anyString()))
+                .thenAnswer(invocation -> employees.containsKey(invocation.<String>getArgument(0)));
+        when(employeeRepository.save(any(Employee.class))).thenAnswer(invocation -> {
+            Employee employee = invocation.getArgument(0);
+            if (employee.getId() == null) {
+                employee.setId(new ObjectId().toHexString());
+            }
+            store(employee);
+            return copy(employee);
+        });
+        when(employeeRepository.updateIfUnchanged(anyString(), any(Update.class), nullable(Long.class)))
+                .thenAnswer(invocation -> {
+                    Long expected = invocation.getArgument(2);
+                    synchronized (employees) {
+                        Employee stored = employees.get(invocation.<String>getArgument(0));
+                        if (stored == null || (expected != null && versionOf(stored) != expected)) {
+                            return null;
+                        }
+                        Employee updated = copy(stored);
+                        Document set = (Document) invocation.<Update>getArgument(1).getUpdateObject().get("$set");
+                        new BeanWrapperImpl(updated).setPropertyValues(set);
+                        updated.setVersion(versionOf(stored) + 1);
+                        store(updated);
+                        return copy(updated);
+                    }
+                });
+        when(employeeRepository.deleteIfUnchanged(anyString(), nullable(Long.class)))
+                .thenAnswer(invocation -> {
+                    Long expected = invocation.getArgument(1);
+                    synchronized (employees) {
+                        Employee stored = employees.get(invocation.<String>getArgument(0));
+                        if (stored == null || (expected != null && versionOf(stored) != expected)) {
+                            return 0L;
+                        }
+                        employees.remove(stored.getId());
+                        return 1L;
+                    }
+                });
+        when(employeeRepository.findChangedSince(nullable(LocalDateTime.class), nullable(String.class),
+                any(LocalDateTime.class), anyInt())).thenAnswer(invocation -> since(employees.values(),
+                        Employee::getUpdatedAt, Employee::getId, invocation.getArgument(0), invocation.getArgument(1),
+                        invocation.getArgument(2), invocation.getArgument(3)).stream()
+                        .map(InMemoryEmployees::copy)
+                        .collect(Collectors.toList()));
+        
+        when(tombstoneRepository.save(any(EmployeeTombstone.class))).thenAnswer(invocation -> {
+            EmployeeTombstone tombstone = invocation.getArgument(0);
+            tombstones.put(tombstone.getId(), tombstone);
+            return tombstone;
+        });
+        doAnswer(invocation -> tombstones.remove(invocation.<String>getArgument(0)))
+                .when(tombstoneRepository).deleteById(anyString());
+        when(tombstoneRepository.findDeletedSince(nullable(LocalDateTime.class), nullable(String.class),
+                any(LocalDateTime.class), anyInt())).thenAnswer(invocation -> since(tombstones.values(),
+                        EmployeeTombstone::getDeletedAt, EmployeeTombstone::getId, invocation.getArgument(0),
+                        invocation.getArgument(1), invocation.getArgument(2), invocation.getArgument(3)));
+        
+        when(collectionVersionRepository.increment(anyString())).thenAnswer(invocation -> version.incrementAndGet());
+        when(collectionVersionRepository.findById(anyString()))
+                .thenAnswer(invocation -> Optional.of(new CollectionVersion(invocation.getArgument(0), version.get())));
+        when(employeeCache.get(anyString(), any()))
+                .thenAnswer(invocation -> invocation.<Function<String, Object>>getArgument(1)
+                        .apply(invocation.getArgument(0)));
+        
+        ApplicationEventPublisher eventPublisher = event -> events.add((EmployeeChangeEvent) event);
+        ReflectionTestUtils.setField(service, "employeeRepository", employeeRepository);
+        ReflectionTestUtils.setField(service, "tombstoneRepository", tombstoneRepository);
+        ReflectionTestUtils.setField(service, "collectionVersionRepository", collectionVersionRepository);
+        ReflectionTestUtils.setField(service, "employeeCache", employeeCache);
+        ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "eventPublisher", eventPublisher);
+        ReflectionTestUtils.setField(service, "maxPageSize", 1000);
+        ReflectionTestUtils.setField(service, "bulkChunkSize", 1000);
+        ReflectionTestUtils.setField(service, "syncSettleTimeInMs", syncSettleTimeInMs);
+        service.init();
+    }
+    
+    public Employee put(String id, String email, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        Employee employee = new Employee(id, "Ada", "Lovelace", email, "Engineering", "Engineer", 100000.0,
+                createdAt, updatedAt, 0L);
+        employees.put(id, employee);
+        return copy(employee);
+    }
+    
+    public void tombstone(String id, LocalDateTime deletedAt) {
+        tombstones.put(id, new EmployeeTombstone(id, deletedAt));
+    }
+    
+    private void store(Employee employee) {
+        synchronized (employees) {
+            for (Employee other : employees.values()) {
+                if (!other.getId().equals(employee.getId()) && other.getEmail().equals(employee.getEmail())) {
+                    throw new DuplicateKeyException("E11000 duplicate key error index: email");
+                }
+            }
+            employees.put(employee.getId(), copy(employee));
+        }
+    }
+    
+    private static <T> List<T> since(Iterable<T> documents, Function<T, LocalDateTime> time, Function<T, String> id,
+                                     LocalDateTime since, String afterId, LocalDateTime until, int limit) {
+        Comparator<T> order = Comparator.comparing(time).thenComparing(id);
+        List<T> sorted = new ArrayList<>();
+        documents.forEach(sorted::add);
+        return sorted.stream()
+                .filter(document -> time.apply(document).isBefore(until))
+                .filter(document -> since == null || time.apply(document).isAfter(since)
+                        || (time.apply(document).equals(since) && id.apply(document).compareTo(afterId) > 0))
+                .sorted(order)
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+    
+    private static long versionOf(Employee employee) {
+        return employee.getVersion() == null ? 0L : employee.getVersion();
+    }
+    
+    static Employee copy(Employee employee) {
+        return new Employee(employee.getId(), employee.getFirstName(), employee.getLastName(), employee.getEmail(),
+                employee.getDepartment(), employee.getPosition(), employee.getSalary(), employee.getCreatedAt(),
+                employee.getUpdatedAt(), employee.getVersion());
+    }
+}